@@ -0,0 +1,55 @@
+package com.example.sudoku.benchmarks;
+
+import com.example.sudoku.controller.DefaultHelpStrategy;
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSize;
+import com.example.sudoku.model.Suggestion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the search of the help strategies without the UI: only the part that picks the move is
+ * run, the highlighting of the cell is left out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HintBenchmark {
+    // Number of boards cycled through, so results do not depend on a single lucky layout
+    private static final int BOARDS = 256;
+
+    @Param({"FOUR", "SIX", "NINE", "TWELVE", "SIXTEEN", "TWENTY_FIVE"})
+    public BoardSize boardSize;
+
+    private DefaultHelpStrategy[] strategies;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        strategies = new DefaultHelpStrategy[BOARDS];
+        for (int i = 0; i < BOARDS; i++) {
+            strategies[i] = new DefaultHelpStrategy(new Board(boardSize, random), null);
+        }
+    }
+
+    @Benchmark
+    public Suggestion defaultStrategy() {
+        return strategies[next++ & (BOARDS - 1)].findSuggestion();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.sudoku.benchmarks;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSize;
+import com.example.sudoku.model.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Board#isValid(int, int, int)}.
+ * The hot variant keeps asking the same board, so its data stays in cache. The cold variant walks
+ * through thousands of boards, so every call touches a board that was evicted a while ago.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    // Number of boards cycled through by the cold benchmark
+    private static final int COLD_BOARDS = 4096;
+
+    // Number of precomputed (row, col, candidate) queries
+    private static final int QUERIES = 1024;
+
+    @Param({"FOUR", "SIX", "NINE", "TWELVE", "SIXTEEN", "TWENTY_FIVE"})
+    public BoardSize boardSize;
+
+    private Board hotBoard;
+    private Board[] coldBoards;
+    private int[] rows;
+    private int[] cols;
+    private int[] candidates;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        int size = boardSize.getSize();
+        hotBoard = new Board(boardSize, random);
+        coldBoards = new Board[COLD_BOARDS];
+        for (int i = 0; i < COLD_BOARDS; i++) {
+            coldBoards[i] = new Board(boardSize, random);
+        }
+        rows = new int[QUERIES];
+        cols = new int[QUERIES];
+        candidates = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            rows[i] = random.nextInt(size);
+            cols[i] = random.nextInt(size);
+            candidates[i] = 1 + random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public ValidationResult hot() {
+        int i = next++ & (QUERIES - 1);
+        return hotBoard.isValid(rows[i], cols[i], candidates[i]);
+    }
+
+    @Benchmark
+    public ValidationResult cold() {
+        int n = next++;
+        int i = n & (QUERIES - 1);
+        return coldBoards[n & (COLD_BOARDS - 1)].isValid(rows[i], cols[i], candidates[i]);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.sudoku.benchmarks;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSize;
+import com.example.sudoku.model.GridVerifier;
+import com.example.sudoku.model.ValidationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares ways of checking a batch of stored grids for repeated numbers; scores are per grid.
+ * The grids are solved boards with about a third of the cells emptied, and one in eight has an
+ * extra number placed where it repeats. The {@code isValid} variant rebuilds each grid on a
+ * {@link Board}, asking {@link Board#isValid(int, int, int)} before placing every number, which is
+ * how a grid was checked before {@link GridVerifier}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class VerificationBenchmark {
+    // Number of grids checked per invocation
+    private static final int GRIDS = 1024;
+
+    @Param({"FOUR", "SIX", "NINE", "TWELVE", "SIXTEEN", "TWENTY_FIVE"})
+    public BoardSize boardSize;
+
+    private byte[] grids;
+    private GridVerifier vectorVerifier;
+    private GridVerifier scalarVerifier;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        int size = boardSize.getSize();
+        int cellCount = boardSize.getCellCount();
+        grids = new byte[GRIDS * cellCount];
+        for (int grid = 0; grid < GRIDS; grid++) {
+            Board solved = Board.solved(boardSize, random);
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (random.nextInt(3) != 0) {
+                    grids[grid * cellCount + cell] = (byte) solved.get(cell / size, cell % size);
+                }
+            }
+            if (grid % 8 == 7) {
+                grids[grid * cellCount + random.nextInt(cellCount)] = (byte) (1 + random.nextInt(size));
+            }
+        }
+        vectorVerifier = GridVerifier.forSize(boardSize);
+        scalarVerifier = GridVerifier.scalar(boardSize);
+        if (!vectorVerifier.isVectorized()) {
+            throw new IllegalStateException("The Vector API is not available");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GRIDS)
+    public BitSet vector() {
+        BitSet invalid = new BitSet(GRIDS);
+        vectorVerifier.verify(grids, GRIDS, invalid);
+        return invalid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GRIDS)
+    public BitSet scalar() {
+        BitSet invalid = new BitSet(GRIDS);
+        scalarVerifier.verify(grids, GRIDS, invalid);
+        return invalid;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(GRIDS)
+    public BitSet isValid() {
+        BitSet invalid = new BitSet(GRIDS);
+        int size = boardSize.getSize();
+        int cellCount = boardSize.getCellCount();
+        for (int grid = 0; grid < GRIDS; grid++) {
+            Board board = Board.empty(boardSize);
+            for (int cell = 0; cell < cellCount; cell++) {
+                int value = grids[grid * cellCount + cell];
+                if (value == 0) {
+                    continue;
+                }
+                if (board.isValid(cell / size, cell % size, value) != ValidationResult.VALID) {
+                    invalid.set(grid);
+                    break;
+                }
+                board.set(cell / size, cell % size, value);
+            }
+        }
+        return invalid;
+    }
+}
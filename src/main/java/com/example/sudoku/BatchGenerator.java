@@ -0,0 +1,265 @@
+package com.example.sudoku;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSize;
+import com.example.sudoku.model.BoardSnapshot;
+import com.example.sudoku.model.CanonicalForm;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.PuzzleBank;
+import com.example.sudoku.model.PuzzleBankWriter;
+import com.example.sudoku.model.PuzzleFormat;
+import com.example.sudoku.model.SnapshotSet;
+import com.example.sudoku.model.solver.PuzzleGenerator;
+import com.example.sudoku.model.solver.Symmetry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Headless entry point that generates many puzzles in parallel and writes them to a file,
+ * either in the {@link PuzzleFormat} text format or as a {@link PuzzleBank} filed under one difficulty.
+ *
+ * Puzzles are generated in fixed-size chunks on a fork-join pool. Every chunk gets its own
+ * {@link SplittableRandom} split from the root seed in chunk order, so the same seed always produces
+ * the same file no matter how many threads are used. Chunks are written in order as they complete,
+ * and only a bounded number of them are kept in memory at once.
+ *
+ * By default boards keep two clues per block, as in the game. With {@code --clues} or {@code --symmetry}
+ * the puzzles come from {@link PuzzleGenerator} instead: they have a unique solution and keep the given
+ * number of clues, or as few as possible with {@code --clues 0}. As few as possible is quick up to 12x12 but
+ * can take seconds per puzzle from 16x16 up.
+ *
+ * With {@code --distinct} a puzzle is only written if no essentially equal puzzle (see
+ * {@link CanonicalForm}) was written before it; the workers compute the canonical forms, and the
+ * duplicates are left out of the file, which may then hold fewer than {@code --count} puzzles.
+ *
+ * Usage: {@code BatchGenerator --count N --out FILE [--size 6] [--seed 0] [--threads CORES]
+ * [--format text|bank] [--difficulty MEDIUM] [--clues 0] [--symmetry NONE|ROTATIONAL|MIRROR|FULL]
+ * [--distinct]}
+ */
+public final class BatchGenerator {
+    // Number of puzzles generated by each task
+    private static final int CHUNK_SIZE = 256;
+
+    // Number of chunks kept in flight per worker thread
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private BatchGenerator() {
+    }
+
+    // Usage line printed when the arguments are wrong
+    private static final String USAGE = "Usage: BatchGenerator --count N --out FILE [--size 6] [--seed 0] "
+            + "[--threads CORES] [--format text|bank] [--difficulty MEDIUM] [--clues 0] "
+            + "[--symmetry NONE|ROTATIONAL|MIRROR|FULL] [--distinct]";
+
+    /**
+     * Result of generating one chunk: the boards, the time each one took and their canonical forms
+     * (null unless duplicates are dropped).
+     */
+    private record Chunk(Board[] boards, long[] nanos, BoardSnapshot[] forms) {
+    }
+
+    /**
+     * Destination of the generated puzzles, which receives them in order.
+     */
+    private interface PuzzleSink {
+        void accept(Board board) throws IOException;
+    }
+
+    /**
+     * Parses the arguments, generates the puzzles and prints a throughput report.
+     * @param args the command-line arguments
+     * @throws IOException if the output file cannot be written
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int count = 0;
+        int size = 6;
+        long seed = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path out = null;
+        boolean bank = false;
+        Difficulty difficulty = Difficulty.MEDIUM;
+        int clues = -1;
+        Symmetry symmetry = null;
+        boolean distinct = false;
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                if (args[i].equals("--distinct")) {
+                    distinct = true;
+                    i--;
+                    continue;
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--count" -> count = Integer.parseInt(value);
+                    case "--size" -> size = Integer.parseInt(value);
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--out" -> out = Path.of(value);
+                    case "--format" -> bank = switch (value) {
+                        case "text" -> false;
+                        case "bank" -> true;
+                        default -> throw new IllegalArgumentException("Unknown format: " + value);
+                    };
+                    case "--difficulty" -> difficulty = Difficulty.valueOf(value);
+                    case "--clues" -> clues = Integer.parseInt(value);
+                    case "--symmetry" -> symmetry = Symmetry.valueOf(value);
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (count <= 0 || threads <= 0 || out == null) {
+                throw new IllegalArgumentException("--count, --threads and --out are required and must be positive");
+            }
+            if (clues > BoardSize.of(size).getCellCount()) {
+                throw new IllegalArgumentException("--clues cannot exceed the number of cells");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+
+        BoardSize boardSize = BoardSize.of(size);
+        Function<SplittableRandom, Board> generator;
+        if (clues >= 0 || symmetry != null) {
+            PuzzleGenerator puzzleGenerator = new PuzzleGenerator(boardSize,
+                    symmetry == null ? Symmetry.NONE : symmetry, Math.max(0, clues));
+            generator = puzzleGenerator::generate;
+        } else {
+            generator = random -> new Board(boardSize, random);
+        }
+        long[] nanos = new long[count];
+        SnapshotSet seen = distinct ? new SnapshotSet(boardSize, count) : null;
+        long start = System.nanoTime();
+        int duplicates;
+        if (bank) {
+            PuzzleBankWriter writer = new PuzzleBankWriter(boardSize);
+            Difficulty level = difficulty;
+            duplicates = generate(generator, count, seed, threads, seen, board -> writer.add(level, board), nanos);
+            writer.write(out);
+        } else {
+            try (BufferedWriter writer = Files.newBufferedWriter(out)) {
+                duplicates = generate(generator, count, seed, threads, seen, board -> {
+                    writer.write(PuzzleFormat.format(board));
+                    writer.newLine();
+                }, nanos);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(nanos);
+        System.out.printf(Locale.ROOT, "Generated %d puzzles (%dx%d) with %d threads in %.2f s%n",
+                count, size, size, threads, elapsed / 1e9);
+        System.out.printf(Locale.ROOT, "Throughput: %.0f puzzles/s%n", count / (elapsed / 1e9));
+        System.out.printf(Locale.ROOT, "Generation time: p50 %.1f us, p99 %.1f us, max %.1f us%n",
+                percentile(nanos, 0.50) / 1e3, percentile(nanos, 0.99) / 1e3, nanos[count - 1] / 1e3);
+        if (distinct) {
+            System.out.printf(Locale.ROOT, "Skipped %d duplicates, wrote %d distinct puzzles%n",
+                    duplicates, count - duplicates);
+        }
+    }
+
+    /**
+     * Generates the puzzles and streams them to the sink in order.
+     *
+     * @param generator creates one puzzle from a random generator.
+     * @param count     how many puzzles to generate.
+     * @param seed      the root seed.
+     * @param threads   the number of worker threads.
+     * @param seen      the canonical forms of the puzzles written so far, or null to keep duplicates.
+     * @param sink      the destination of the puzzles.
+     * @param nanos     receives the generation time of each puzzle.
+     * @return the number of duplicates left out.
+     */
+    private static int generate(Function<SplittableRandom, Board> generator, int count, long seed, int threads,
+                                SnapshotSet seen, PuzzleSink sink, long[] nanos)
+            throws IOException, InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        SplittableRandom root = new SplittableRandom(seed);
+        Deque<Future<Chunk>> pending = new ArrayDeque<>();
+        int maxPending = threads * CHUNKS_PER_THREAD;
+
+        boolean distinct = seen != null;
+        int duplicates = 0;
+        try {
+            int submitted = 0;
+            int written = 0;
+            while (written < count) {
+                // Keep the pool busy without holding the whole output in memory
+                while (submitted < count && pending.size() < maxPending) {
+                    int chunkCount = Math.min(CHUNK_SIZE, count - submitted);
+                    SplittableRandom random = root.split();
+                    pending.add(pool.submit(() -> generateChunk(generator, chunkCount, random, distinct)));
+                    submitted += chunkCount;
+                }
+
+                Chunk chunk = pending.remove().get();
+                Board[] boards = chunk.boards();
+                for (int i = 0; i < boards.length; i++) {
+                    if (distinct && !seen.add(chunk.forms()[i])) {
+                        duplicates++;
+                    } else {
+                        sink.accept(boards[i]);
+                    }
+                }
+                System.arraycopy(chunk.nanos(), 0, nanos, written, chunk.nanos().length);
+                written += chunk.nanos().length;
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Puzzle generation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return duplicates;
+    }
+
+    /**
+     * Generates one chunk of puzzles sequentially.
+     *
+     * @param generator creates one puzzle from a random generator.
+     * @param count     how many puzzles the chunk contains.
+     * @param random    the random generator owned by this chunk.
+     * @param distinct  whether to compute the canonical form of each puzzle.
+     * @return the puzzles, their generation times and their canonical forms.
+     */
+    private static Chunk generateChunk(Function<SplittableRandom, Board> generator, int count,
+                                       SplittableRandom random, boolean distinct) {
+        Board[] boards = new Board[count];
+        long[] nanos = new long[count];
+        BoardSnapshot[] forms = distinct ? new BoardSnapshot[count] : null;
+        for (int i = 0; i < count; i++) {
+            long start = System.nanoTime();
+            boards[i] = generator.apply(random);
+            nanos[i] = System.nanoTime() - start;
+            if (distinct) {
+                forms[i] = CanonicalForm.of(boards[i]);
+            }
+        }
+        return new Chunk(boards, nanos, forms);
+    }
+
+    /**
+     * Returns a percentile of sorted values using the nearest-rank method.
+     *
+     * @param sorted   the values in ascending order.
+     * @param fraction the percentile as a fraction (for example 0.99).
+     * @return the value at that percentile.
+     */
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,404 @@
+package com.example.sudoku;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.PuzzleBank;
+import com.example.sudoku.model.PuzzleFormat;
+import com.example.sudoku.model.solver.Grade;
+import com.example.sudoku.model.solver.Grader;
+import com.example.sudoku.model.solver.Technique;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Headless entry point that grades every puzzle of a file in parallel and reports how the corpus is spread.
+ *
+ * The input is a {@link PuzzleFormat} text file (one puzzle per line) or a {@link PuzzleBank}. Puzzles are
+ * read in fixed-size chunks and graded with {@link Grader} on a fork-join pool; each chunk fills its
+ * own histograms, which are merged in input order, so only a bounded number of chunks is in memory at
+ * once. The report has the histograms of difficulty levels, hardest techniques, scores and steps,
+ * followed by the throughput. With {@code --grades} the grade of every puzzle is also written, one line
+ * per puzzle in input order: {@code difficulty score hardest steps}, or {@code UNSOLVABLE}.
+ *
+ * A line that cannot be parsed does not stop the run: it is counted, reported on standard error with its
+ * line number (the first {@value #MAX_SHOWN_REJECTIONS} of them) and written as {@code INVALID} to the
+ * grades. Blank lines are written as {@code BLANK}, so the grades line up with the lines of the input.
+ *
+ * Usage: {@code GradeCorpus --in FILE [--format text|bank] [--threads CORES] [--grades FILE] [--report FILE]}
+ */
+public final class GradeCorpus {
+    // Number of puzzles graded by each task
+    private static final int CHUNK_SIZE = 1024;
+
+    // Number of chunks kept in flight per worker thread
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    // Width of each bucket of the score histogram
+    private static final int SCORE_BUCKET = 50;
+
+    // Number of buckets of the score and step histograms; the last one collects everything above
+    private static final int BUCKETS = 20;
+
+    // Width of each bucket of the step histogram
+    private static final int STEP_BUCKET = 10;
+
+    // Number of rejected puzzles whose reason is printed; the others are only counted
+    private static final int MAX_SHOWN_REJECTIONS = 20;
+
+    // Usage line printed when the arguments are wrong
+    private static final String USAGE = "Usage: GradeCorpus --in FILE [--format text|bank] [--threads CORES] "
+            + "[--grades FILE] [--report FILE]";
+
+    private GradeCorpus() {
+    }
+
+    /**
+     * Histograms of a group of puzzles; chunks fill their own and the results are added together.
+     */
+    private static final class Stats {
+        final long[] difficulties = new long[Difficulty.values().length];
+        final long[] techniques = new long[Technique.values().length];
+        final long[] scores = new long[BUCKETS];
+        final long[] steps = new long[BUCKETS];
+        long graded;
+        long unsolvable;
+        long rejected;
+        long totalScore;
+
+        void add(Grade grade) {
+            if (grade == null) {
+                unsolvable++;
+                return;
+            }
+            graded++;
+            totalScore += grade.score();
+            difficulties[grade.difficulty().ordinal()]++;
+            techniques[grade.hardest().ordinal()]++;
+            scores[Math.min(BUCKETS - 1, grade.score() / SCORE_BUCKET)]++;
+            steps[Math.min(BUCKETS - 1, grade.steps() / STEP_BUCKET)]++;
+        }
+
+        void addAll(Stats other) {
+            graded += other.graded;
+            unsolvable += other.unsolvable;
+            rejected += other.rejected;
+            totalScore += other.totalScore;
+            for (int i = 0; i < BUCKETS; i++) {
+                scores[i] += other.scores[i];
+                steps[i] += other.steps[i];
+            }
+            for (int i = 0; i < difficulties.length; i++) {
+                difficulties[i] += other.difficulties[i];
+            }
+            for (int i = 0; i < techniques.length; i++) {
+                techniques[i] += other.techniques[i];
+            }
+        }
+    }
+
+    /**
+     * Puzzles decoded by a worker. An entry without a board is either rejected, with the reason and the
+     * place it was read from, or a blank line, without a reason.
+     */
+    private record Decoded(Board[] boards, String[] rejections) {
+    }
+
+    /**
+     * Result of grading one chunk: the line written to the grades for each entry, the reasons of the
+     * rejected entries (null for the others) and the histograms of the chunk.
+     */
+    private record Chunk(String[] grades, String[] rejections, Stats stats) {
+    }
+
+    /**
+     * Source of the puzzles, which hands them out in order.
+     */
+    private interface PuzzleSource {
+        /**
+         * Reads the raw data of the next puzzles; decoding it into boards is left to the worker threads.
+         *
+         * @param max the largest number of puzzles to read.
+         * @return the decoder of the next puzzles, or null once the source is exhausted.
+         */
+        Supplier<Decoded> next(int max) throws IOException;
+    }
+
+    /**
+     * Parses the arguments, grades the puzzles and prints the report.
+     * @param args the command-line arguments
+     * @throws IOException if a file cannot be read or written
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Path in = null;
+        Path gradesOut = null;
+        Path reportOut = null;
+        boolean bank = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 0; i < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--in" -> in = Path.of(value);
+                    case "--grades" -> gradesOut = Path.of(value);
+                    case "--report" -> reportOut = Path.of(value);
+                    case "--threads" -> threads = Integer.parseInt(value);
+                    case "--format" -> bank = switch (value) {
+                        case "text" -> false;
+                        case "bank" -> true;
+                        default -> throw new IllegalArgumentException("Unknown format: " + value);
+                    };
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            if (in == null || threads <= 0) {
+                throw new IllegalArgumentException("--in is required and --threads must be positive");
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+
+        Stats total = new Stats();
+        long start = System.nanoTime();
+        try (BufferedWriter grades = gradesOut == null ? null : Files.newBufferedWriter(gradesOut)) {
+            PuzzleSource source = bank ? bankSource(PuzzleBank.open(in)) : textSource(Files.newBufferedReader(in));
+            grade(source, threads, chunk -> {
+                long shown = total.rejected;
+                for (String rejection : chunk.rejections()) {
+                    if (rejection != null && shown++ < MAX_SHOWN_REJECTIONS) {
+                        System.err.println("Rejected " + rejection);
+                    }
+                }
+                total.addAll(chunk.stats());
+                if (grades != null) {
+                    for (String grade : chunk.grades()) {
+                        grades.write(grade);
+                        grades.newLine();
+                    }
+                }
+            });
+        }
+        long elapsed = System.nanoTime() - start;
+
+        if (reportOut == null) {
+            report(total, threads, elapsed, System.out);
+        } else {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(reportOut))) {
+                report(total, threads, elapsed, out);
+            }
+            report(total, threads, elapsed, System.out);
+        }
+    }
+
+    /**
+     * Receiver of the graded chunks, in input order.
+     */
+    private interface ChunkSink {
+        void accept(Chunk chunk) throws IOException;
+    }
+
+    /**
+     * Grades every puzzle of the source and streams the chunks to the sink in order.
+     *
+     * @param source  the puzzles.
+     * @param threads the number of worker threads.
+     * @param sink    the receiver of the graded chunks.
+     */
+    private static void grade(PuzzleSource source, int threads, ChunkSink sink)
+            throws IOException, InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Deque<Future<Chunk>> pending = new ArrayDeque<>();
+        int maxPending = threads * CHUNKS_PER_THREAD;
+        try {
+            boolean exhausted = false;
+            while (!exhausted || !pending.isEmpty()) {
+                // Keep the pool busy without reading the whole file into memory
+                while (!exhausted && pending.size() < maxPending) {
+                    Supplier<Decoded> boards = source.next(CHUNK_SIZE);
+                    if (boards == null) {
+                        exhausted = true;
+                    } else {
+                        pending.add(pool.submit(() -> gradeChunk(boards.get())));
+                    }
+                }
+                if (!pending.isEmpty()) {
+                    sink.accept(pending.remove().get());
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Grading failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Grades one chunk of puzzles sequentially.
+     *
+     * @param decoded the puzzles of the chunk.
+     * @return the grades and histograms of the chunk.
+     */
+    private static Chunk gradeChunk(Decoded decoded) {
+        Board[] boards = decoded.boards();
+        String[] grades = new String[boards.length];
+        Stats stats = new Stats();
+        for (int i = 0; i < boards.length; i++) {
+            if (boards[i] == null) {
+                if (decoded.rejections()[i] != null) {
+                    stats.rejected++;
+                }
+                grades[i] = decoded.rejections()[i] != null ? "INVALID" : "BLANK";
+                continue;
+            }
+            Grade grade = Grader.grade(boards[i]);
+            stats.add(grade);
+            grades[i] = grade == null ? "UNSOLVABLE"
+                    : grade.difficulty() + " " + grade.score() + " " + grade.hardest() + " " + grade.steps();
+        }
+        return new Chunk(grades, decoded.rejections(), stats);
+    }
+
+    /**
+     * Reads puzzles from a text file; the lines are parsed by the workers, each on its own so that a bad
+     * line is only rejected, and blank lines are kept as entries without a board.
+     */
+    private static PuzzleSource textSource(BufferedReader reader) {
+        long[] lineNumber = new long[1];
+        return max -> {
+            List<String> lines = new ArrayList<>(max);
+            String line;
+            while (lines.size() < max && (line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+            if (lines.isEmpty()) {
+                reader.close();
+                return null;
+            }
+            long first = lineNumber[0] + 1;
+            lineNumber[0] += lines.size();
+            return () -> {
+                Board[] boards = new Board[lines.size()];
+                String[] rejections = new String[lines.size()];
+                for (int i = 0; i < boards.length; i++) {
+                    String text = lines.get(i);
+                    if (text.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        boards[i] = PuzzleFormat.parse(text);
+                    } catch (IllegalArgumentException e) {
+                        rejections[i] = "line " + (first + i) + ": " + e.getMessage();
+                    }
+                }
+                return new Decoded(boards, rejections);
+            };
+        };
+    }
+
+    /**
+     * Reads every puzzle of a bank, one difficulty level after the other; the records are decoded by the workers.
+     */
+    private static PuzzleSource bankSource(PuzzleBank puzzleBank) {
+        Difficulty[] levels = Difficulty.values();
+        int[] position = new int[2]; // level, index within the level
+        return max -> {
+            while (position[0] < levels.length && position[1] == puzzleBank.count(levels[position[0]])) {
+                position[0]++;
+                position[1] = 0;
+            }
+            if (position[0] == levels.length) {
+                return null;
+            }
+            Difficulty level = levels[position[0]];
+            int first = position[1];
+            int count = Math.min(max, puzzleBank.count(level) - first);
+            position[1] += count;
+            return () -> {
+                Board[] boards = new Board[count];
+                String[] rejections = new String[count];
+                for (int i = 0; i < count; i++) {
+                    try {
+                        boards[i] = puzzleBank.load(level, first + i);
+                    } catch (IllegalArgumentException e) {
+                        rejections[i] = level + " record " + (first + i) + ": " + e.getMessage();
+                    }
+                }
+                return new Decoded(boards, rejections);
+            };
+        };
+    }
+
+    /**
+     * Prints the histograms and the throughput.
+     */
+    private static void report(Stats stats, int threads, long elapsed, PrintStream out) {
+        long count = stats.graded + stats.unsolvable;
+        out.printf(Locale.ROOT, "Graded %d puzzles with %d threads in %.2f s (%d unsolvable, %d rejected)%n",
+                count, threads, elapsed / 1e9, stats.unsolvable, stats.rejected);
+        out.printf(Locale.ROOT, "Throughput: %.0f puzzles/s, %.0f puzzles/min%n",
+                count / (elapsed / 1e9), count / (elapsed / 6e10));
+        if (stats.graded > 0) {
+            out.printf(Locale.ROOT, "Mean score: %.1f%n", (double) stats.totalScore / stats.graded);
+        }
+
+        out.println();
+        out.println("Difficulty");
+        Difficulty[] levels = Difficulty.values();
+        for (int i = 0; i < levels.length; i++) {
+            bar(out, levels[i].toString(), stats.difficulties[i], stats.graded);
+        }
+
+        out.println();
+        out.println("Hardest technique");
+        Technique[] techniques = Technique.values();
+        for (int i = 0; i < techniques.length; i++) {
+            bar(out, techniques[i].toString(), stats.techniques[i], stats.graded);
+        }
+
+        out.println();
+        out.println("Score");
+        buckets(out, stats.scores, SCORE_BUCKET, stats.graded);
+
+        out.println();
+        out.println("Steps");
+        buckets(out, stats.steps, STEP_BUCKET, stats.graded);
+    }
+
+    private static void buckets(PrintStream out, long[] histogram, int width, long total) {
+        int last = histogram.length - 1;
+        while (last > 0 && histogram[last] == 0) {
+            last--;
+        }
+        for (int i = 0; i <= last; i++) {
+            String label = i == histogram.length - 1
+                    ? (i * width) + "+"
+                    : (i * width) + "-" + ((i + 1) * width - 1);
+            bar(out, label, histogram[i], total);
+        }
+    }
+
+    private static void bar(PrintStream out, String label, long count, long total) {
+        double fraction = total == 0 ? 0 : (double) count / total;
+        char[] bar = new char[(int) Math.round(fraction * 50)];
+        Arrays.fill(bar, '#');
+        out.printf(Locale.ROOT, "  %-18s %10d %6.2f%% %s%n", label, count, fraction * 100, new String(bar));
+    }
+}
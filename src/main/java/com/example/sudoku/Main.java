@@ -1,5 +1,6 @@
 package com.example.sudoku;
 
+import com.example.sudoku.view.StartupTimer;
 import com.example.sudoku.view.SudokuStage;
 import javafx.application.Application;
 import javafx.stage.Stage;
@@ -19,6 +20,7 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage stage) throws IOException {
+       StartupTimer.mark("start");
        new SudokuStage();
     }
 
@@ -27,6 +29,7 @@ public class Main extends Application {
      * @param args the command-line arguments
      */
     public static void main(String[] args) {
+        StartupTimer.mark("main");
         launch();
     }
 }
\ No newline at end of file
@@ -1,81 +1,118 @@
 package com.example.sudoku.controller;
 
+import com.example.sudoku.metrics.HintEvent;
+import com.example.sudoku.metrics.Metrics;
 import com.example.sudoku.model.Board;
-import javafx.scene.control.TextField;
-import javafx.scene.layout.GridPane;
+import com.example.sudoku.model.BoardSnapshot;
+import com.example.sudoku.model.Suggestion;
+import com.example.sudoku.model.solver.Hints;
+import com.example.sudoku.view.BoardView;
+import com.example.sudoku.view.CellStyle;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Default implementation of the interface
- * Provides a basic hint by finding the first empty cell that can accept a valid number according to Sudoku rules, and then highlights it on the board.
+ * Provides a basic hint by finding the empty cell with the fewest valid numbers according to Sudoku rules, and then highlights it on the board.
  */
 public class DefaultHelpStrategy implements HelpStrategy {
 
-    private final Board board;
-    private final GridPane boardGridPane;
+    protected final Board board;
+    private final BoardView view;
 
     /**
-     * Constructs a new DefaultHelpStrategy with the given board and UI grid.
-     * @param board         the logical Sudoku board model
-     * @param boardGridPane the UI representation of the board
+     * Constructs a new DefaultHelpStrategy with the given board and view.
+     * @param board the logical Sudoku board model
+     * @param view  the view that shows the board
      */
-    public DefaultHelpStrategy(Board board, GridPane boardGridPane) {
+    public DefaultHelpStrategy(Board board, BoardView view) {
         this.board = board;
-        this.boardGridPane = boardGridPane;
+        this.view = view;
     }
 
     /**
-     * Finds the first empty cell that can be filled with a valid number and highlights it with a suggestion.
+     * Finds the empty cell with the fewest valid numbers and highlights it with a suggestion.
+     * The time taken is recorded as a HintEvent and in the hint metrics of the strategy.
      */
     @Override
-    public void provideSuggestion() {
-        for (int row = 0; row < board.getBoard().size(); row++) {
-            for (int col = 0; col < board.getBoard().size(); col++) {
-                if (board.getBoard().get(row).get(col) == 0) {
-                    for (int candidate = 1; candidate <= 6; candidate++) {
-                        if (board.isValid(row, col, candidate).equals("Válido")) {
-                            highlightSuggestion(row, col, candidate);
-                            return;
-                        }
-                    }
-                }
-            }
+    public Suggestion provideSuggestion() {
+        Suggestion suggestion = timedSuggestion(board);
+        if (suggestion != null) {
+            showSuggestion(suggestion);
         }
+        return suggestion;
     }
 
+    /**
+     * Finds the suggestion on a worker thread against a board rebuilt from the snapshot, recording the time taken like provideSuggestion.
+     */
+    @Override
+    public CompletableFuture<Suggestion> findSuggestionAsync(BoardSnapshot snapshot, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> timedSuggestion(snapshot.toBoard()), executor);
+    }
 
     /**
-     * Highlights a suggested move by placing the candidate number in the cell and applying a distinct style to indicate the hint
-     * @param row       the row index of the suggested cell
-     * @param col       the column index of the suggested cell
-     * @param candidate the valid number to be suggested
+     * Finds a suggestion and records the time taken as a HintEvent and in the hint metrics of the strategy.
+     * @param target the board to look at
+     * @return the suggested move, or null if there is nothing to suggest
      */
-    private void highlightSuggestion(int row, int col, int candidate) {
-        for (javafx.scene.Node node : boardGridPane.getChildren()) {
-            Integer nodeRow = GridPane.getRowIndex(node);
-            Integer nodeCol = GridPane.getColumnIndex(node);
+    private Suggestion timedSuggestion(Board target) {
+        HintEvent event = new HintEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Suggestion suggestion = findSuggestion(target);
+        Metrics.timer("hint." + getClass().getSimpleName()).record(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.strategy = getClass().getSimpleName();
+            event.found = suggestion != null;
+            event.technique = suggestion == null || suggestion.technique() == null ? null : suggestion.technique().name();
+            event.commit();
+        }
+        return suggestion;
+    }
+
+    /**
+     * Finds the empty cell with the fewest valid numbers and picks the smallest of them, without touching the board or the UI.
+     * @return the suggested move, or null if the board is full or some empty cell no longer accepts any number
+     */
+    @Override
+    public Suggestion findSuggestion() {
+        return findSuggestion(board);
+    }
 
-            if (nodeRow != null && nodeCol != null && nodeRow == row && nodeCol == col && node instanceof TextField) {
-                TextField tf = (TextField) node;
-                if (tf.getText().isEmpty()) {
-                    // Recover the previously saved borderRadius
-                    String borderRadius = (String) tf.getUserData();
+    /**
+     * Finds the empty cell with the fewest valid numbers of another board and picks the smallest of them.
+     * @param target the board to look at
+     * @return the suggested move, or null if the board is full or some empty cell no longer accepts any number
+     */
+    @Override
+    public Suggestion findSuggestion(Board target) {
+        return Hints.fewestCandidates(target);
+    }
 
-                    tf.setText(String.valueOf(candidate));
-                    tf.setEditable(false);
+    /**
+     * Places the suggested number and highlights its cell, unless the player filled the cell in the meantime
+     * @param suggestion the move to show
+     */
+    @Override
+    public void showSuggestion(Suggestion suggestion) {
+        highlightSuggestion(suggestion.row(), suggestion.col(), suggestion.value());
+    }
 
-                    // Apply the style with the retrieved borderRadius
-                    tf.setStyle(
-                            "-fx-background-color: #ffeaa7; " +
-                                    "-fx-border-color: #ffe44f; " +
-                                    "-fx-border-width: 2; " +
-                                    borderRadius // Keep the original borderRadius
-                    );
 
-                    // Update the board with the suggestion
-                    board.getBoard().get(row).set(col, candidate);
-                    break;
-                }
-            }
+    /**
+     * Highlights a suggested move by placing the candidate number in the cell and switching the cell to the hint state
+     * @param row       the row index of the suggested cell
+     * @param col       the column index of the suggested cell
+     * @param candidate the valid number to be suggested
+     */
+    protected void highlightSuggestion(int row, int col, int candidate) {
+        if (view.isBlank(row, col)) {
+            // Update the board with the suggestion; the controller shows the number in the cell
+            board.set(row, col, candidate);
+            view.setState(row, col, CellStyle.HINT);
         }
     }
 }
@@ -1,11 +1,49 @@
 package com.example.sudoku.controller;
 
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSnapshot;
+import com.example.sudoku.model.Suggestion;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 /**
  * Interface for different help strategies in Sudoku.
  */
 public interface HelpStrategy {
     /**
-     * Finds the first empty cell that can be filled with a valid number and highlights it with a suggestion.
+     * Finds a move to suggest and highlights it on the board.
+     * @return the suggestion that was shown, or null if there is nothing to suggest
+     */
+    Suggestion provideSuggestion();
+
+    /**
+     * Finds the move to suggest without touching the board or the UI.
+     * @return the suggested move, or null if there is nothing to suggest
+     */
+    Suggestion findSuggestion();
+
+    /**
+     * Finds the move to suggest on any board, without touching it or the UI.
+     * @param board the board to look at
+     * @return the suggested move, or null if there is nothing to suggest
+     */
+    Suggestion findSuggestion(Board board);
+
+    /**
+     * Places a suggestion found earlier on the board and highlights it; must run on the JavaFX thread.
+     * @param suggestion the move to show
+     */
+    void showSuggestion(Suggestion suggestion);
+
+    /**
+     * Finds the move to suggest on another thread, against a snapshot of the board, so the UI never waits for the search.
+     * Cancelling the future before the search starts skips it; a search already running finishes but its result is dropped.
+     * @param snapshot the board at the time of the request
+     * @param executor the executor that runs the search
+     * @return the future suggested move, completed with null if there is nothing to suggest
      */
-    void provideSuggestion();
+    default CompletableFuture<Suggestion> findSuggestionAsync(BoardSnapshot snapshot, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> findSuggestion(snapshot.toBoard()), executor);
+    }
 }
@@ -0,0 +1,34 @@
+package com.example.sudoku.controller;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.Suggestion;
+import com.example.sudoku.model.solver.Hints;
+import com.example.sudoku.view.BoardView;
+
+/**
+ * Help strategy that only suggests correct moves.
+ * Applies naked singles, hidden singles, locked candidates and naked/hidden pairs in that order, and
+ * only when none of them finds a move it reads the number from a solution of the board.
+ */
+public class LogicHelpStrategy extends DefaultHelpStrategy {
+
+    /**
+     * Constructs a new LogicHelpStrategy with the given board and view.
+     * @param board the logical Sudoku board model
+     * @param view  the view that shows the board
+     */
+    public LogicHelpStrategy(Board board, BoardView view) {
+        super(board, view);
+    }
+
+    /**
+     * Finds the easiest correct move, together with the technique that justifies it.
+     * Returns null when the numbers on the board already rule out every solution, since then no move is correct.
+     * @param target the board to look at
+     * @return the suggested move, or null if the board is full or cannot be completed
+     */
+    @Override
+    public Suggestion findSuggestion(Board target) {
+        return Hints.logical(target);
+    }
+}
@@ -1,13 +1,52 @@
 package com.example.sudoku.controller;
 
+import com.example.sudoku.metrics.KeystrokeEvent;
+import com.example.sudoku.metrics.Metrics;
 import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSize;
+import com.example.sudoku.model.BoardSnapshot;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.MoveJournal;
+import com.example.sudoku.model.PuzzleBank;
+import com.example.sudoku.model.PuzzleFormat;
+import com.example.sudoku.model.PuzzlePrefetcher;
+import com.example.sudoku.model.SaveFile;
+import com.example.sudoku.model.Suggestion;
+import com.example.sudoku.model.ValidationResult;
+import com.example.sudoku.model.solver.BoardCheck;
+import com.example.sudoku.view.BoardView;
+import com.example.sudoku.view.CanvasBoardView;
+import com.example.sudoku.view.CellStyle;
+import com.example.sudoku.view.StartupTimer;
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
 import javafx.fxml.FXML;
-import javafx.geometry.Pos;
+import javafx.geometry.HPos;
+import javafx.geometry.VPos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextFormatter;
+import javafx.scene.input.KeyCode;
+import javafx.scene.layout.ColumnConstraints;
 import javafx.scene.layout.GridPane;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.RowConstraints;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 
 /**
@@ -15,14 +54,104 @@ import java.util.function.UnaryOperator;
  * Responsible for rendering the Sudoku board, handling user input, providing help via a strategy, and validating number entries
  */
 public class SudokuController {
+    // Height of each row of cells, in pixels
+    private static final double CELL_SIZE = 30;
+
+    // Space left around the board inside the window, in pixels
+    private static final double BOARD_MARGIN = 220;
+
+    // Smallest side of the window, in pixels
+    private static final double MIN_WINDOW_SIZE = 400;
+
+    // Geometry of the board, chosen with -Dsudoku.size (4, 6, 9, 12, 16 or 25)
+    private final BoardSize boardSize = chooseBoardSize();
+
+    // Layout of the board, chosen with -Dsudoku.board: one text field per cell ("grid", the default) or a single canvas ("canvas")
+    private final boolean canvasBoard = "canvas".equals(System.getProperty("sudoku.board"));
+
+    // Difficulty of the puzzles, chosen with -Dsudoku.difficulty (easy, medium, hard or expert)
+    private final Difficulty difficulty = chooseDifficulty();
+
+    // Pre-generated puzzles, given with -Dsudoku.bank=<file>; null to generate every board
+    private PuzzleBank bank;
+
+    // Local puzzle service, given with -Dsudoku.server=http://localhost:<port>; null to not use one
+    private final String server = System.getProperty("sudoku.server");
+    private final SplittableRandom random = new SplittableRandom();
+
+    // Puzzles generated in the background, -Dsudoku.prefetch of them kept ready (3 by default)
+    private final PuzzlePrefetcher prefetcher = new PuzzlePrefetcher(Integer.getInteger("sudoku.prefetch", 3), 1);
+
+    // Board of the next game while it is being prepared, null when no new game was requested
+    private CompletableFuture<Board> pendingBoard;
+
+    // Saved game, kept in -Dsudoku.save=<directory> (~/.sudoku by default); null if it cannot be opened
+    private SaveFile saveFile;
+
+    // Thread that searches hints and checks the whole board, always on snapshots of the board
+    private final ExecutorService boardWorker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "board-worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Number of changes of the board so far; results computed for an older version are dropped
+    private long boardVersion;
+
+    // Hint being searched on the board worker, null when none was asked for
+    private CompletableFuture<Suggestion> pendingHint;
+
+    // Check of the whole board after the last change, null when it has been shown
+    private CompletableFuture<BoardCheck> pendingCheck;
+
+    // Cells currently marked as repeating a number, as row * size + col
+    private int[] conflicts = new int[0];
+
     @FXML
     private GridPane boardGridPane;
 
     private Board board;
 
+    // Moves made on the board, for undo and redo
+    private MoveJournal journal;
+
+    // View of the cells, built once per board
+    private BoardView view;
+
+    // Strategy used by the help button, chosen with -Dsudoku.help (logic or default)
+    private HelpStrategy helpStrategy;
+
     @FXML
     private Label errorLabel;
 
+    /**
+     * Reads the board size chosen with -Dsudoku.size
+     * @return the chosen geometry, or 6x6 if none was chosen or the size is not supported
+     */
+    private static BoardSize chooseBoardSize() {
+        String size = System.getProperty("sudoku.size", "6");
+        try {
+            return BoardSize.of(Integer.parseInt(size.trim()));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unsupported board size " + size + ", using 6");
+            return BoardSize.of(6);
+        }
+    }
+
+    /**
+     * Reads the difficulty chosen with -Dsudoku.difficulty, in any letter case
+     * @return the chosen difficulty, or MEDIUM if none was chosen or the name is unknown
+     */
+    private static Difficulty chooseDifficulty() {
+        String name = System.getProperty("sudoku.difficulty", "MEDIUM");
+        try {
+            return Difficulty.valueOf(name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Unknown difficulty " + name + ", using MEDIUM");
+            return Difficulty.MEDIUM;
+        }
+    }
+
     /**
      * Initializes the controller
      * This method is automatically called after the FXML fields are injected
@@ -30,68 +159,285 @@ public class SudokuController {
     @FXML
     public void initialize() {
         errorLabel.setText("");
-        fillBoard();
+        openBank();
+        openSaveFile();
+        prepareGrid(boardSize.getSize());
+        MoveJournal resumed = saveFile == null ? null : resumeGame();
+        if (resumed != null) {
+            fillBoard(resumed);
+        } else {
+            newGame();
+        }
+        // After the first board was asked for, so that its generation goes first
+        prefetcher.prefetch(boardSize, difficulty);
+    }
+
+    /**
+     * Connects the controller to a view built in code instead of FXML and initializes it
+     * @param boardGridPane the grid that holds the cells
+     * @param errorLabel    the label for messages to the player
+     * @param undoButton    the button that undoes the last move
+     * @param helpButton    the button that asks for a hint
+     * @param redoButton    the button that redoes the last undone move
+     * @param newGameButton the button that starts a new game
+     */
+    public void attach(GridPane boardGridPane, Label errorLabel, Button undoButton, Button helpButton,
+                       Button redoButton, Button newGameButton) {
+        this.boardGridPane = boardGridPane;
+        this.errorLabel = errorLabel;
+        undoButton.setOnAction(event -> undoAction());
+        helpButton.setOnAction(event -> helpAction());
+        redoButton.setOnAction(event -> redoAction());
+        newGameButton.setOnAction(event -> newGameAction());
+        initialize();
+    }
+
+    /**
+     * Action triggered when the new game button is pressed
+     */
+    @FXML
+    private void newGameAction() {
+        newGame();
+    }
+
+    /**
+     * Starts preparing the board of a new game off the JavaFX thread and shows it once it is ready
+     * The current game stays playable until then; asking for another game cancels the previous request
+     */
+    private void newGame() {
+        if (pendingBoard != null) {
+            pendingBoard.cancel(false);
+        }
+        CompletableFuture<Board> next = nextBoard();
+        pendingBoard = next;
+        if (!next.isDone()) {
+            errorLabel.setText("Generando un tablero nuevo...");
+        }
+        next.whenComplete((nextBoard, error) -> Platform.runLater(() -> {
+            if (pendingBoard != next) {
+                // Cancelled or replaced by a newer request
+                return;
+            }
+            pendingBoard = null;
+            if (nextBoard == null) {
+                errorLabel.setText("No se pudo generar un tablero nuevo");
+                return;
+            }
+            errorLabel.setText("");
+            fillBoard(new MoveJournal(nextBoard));
+        }));
     }
 
     /**
      * Action triggered when the help button is pressed
+     * The hint is searched on the board worker; pressing again replaces the request, and changing the board drops it
      */
     @FXML
     private void helpAction() {
-        HelpStrategy helper = new DefaultHelpStrategy(board, boardGridPane);
-        helper.provideSuggestion();
+        if (journal == null) {
+            return;
+        }
+        if (pendingHint != null) {
+            pendingHint.cancel(false);
+        }
+        pendingHint = onBoardWorker(helpStrategy.findSuggestionAsync(BoardSnapshot.of(board), boardWorker),
+                this::showHint);
     }
 
     /**
-     * Fills the Sudoku board with initial values and prepares the UI
-     * Applies styling, sets up input validation, and creates cell handlers
+     * Places a hint found on the board worker and tells the player the technique behind it
+     * @param suggestion the hint, or null if no move is correct
      */
-    private void fillBoard() {
-        board = new Board();
+    private void showHint(Suggestion suggestion) {
+        pendingHint = null;
+        if (suggestion == null) {
+            errorLabel.setText("No hay ninguna jugada correcta: revisa tus números");
+            return;
+        }
+        journal.hint(() -> {
+            helpStrategy.showSuggestion(suggestion);
+            return suggestion;
+        });
+        if (suggestion.technique() != null) {
+            errorLabel.setText("Pista: " + techniqueName(suggestion));
+        }
+    }
 
-        for (int row = 0; row < board.getBoard().size(); row++) {
-            for (int col = 0; col < board.getBoard().size(); col++) {
-                int number = board.getBoard().get(row).get(col);
-                TextField textField = new TextField();
+    /**
+     * Starts checking the whole board on the board worker, replacing the check still pending
+     */
+    private void checkBoard() {
+        if (pendingCheck != null) {
+            pendingCheck.cancel(false);
+        }
+        BoardSnapshot snapshot = BoardSnapshot.of(board);
+        pendingCheck = onBoardWorker(CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            BoardCheck check = BoardCheck.of(snapshot);
+            Metrics.timer("board.check").record(System.nanoTime() - start);
+            return check;
+        }, boardWorker), this::showCheck);
+    }
 
-                String baseStyle =
-                        "-fx-font-size: 16px;" +
-                                "-fx-background-color: #ffffff;" +
-                                "-fx-border-color: #dfe6e9;" +
-                                "-fx-border-width: 1.0;" +
-                                "-fx-border-style: solid;";
+    /**
+     * Marks the cells that repeat a number and tells the player when the board is complete or can no longer be completed
+     * @param check the result of checking the board
+     */
+    private void showCheck(BoardCheck check) {
+        pendingCheck = null;
+        int size = boardSize.getSize();
+        for (int cell : conflicts) {
+            view.setConflict(cell / size, cell % size, false);
+        }
+        conflicts = check.conflicts();
+        for (int cell : conflicts) {
+            view.setConflict(cell / size, cell % size, true);
+        }
+        if (conflicts.length > 0) {
+            errorLabel.setText("Hay números repetidos en el tablero");
+        } else if (check.complete()) {
+            errorLabel.setText("¡Tablero completo!");
+        } else if (!check.solvable()) {
+            errorLabel.setText("El tablero ya no tiene solución: revisa tus números");
+        }
+    }
 
-                String borderRadius = switch (row + "," + col) {
-                    case "0,0" -> "-fx-background-radius: 10 0 0 0; -fx-border-radius: 10 0 0 0;";
-                    case "0,5" -> "-fx-background-radius: 0 10 0 0; -fx-border-radius: 0 10 0 0;";
-                    case "5,0" -> "-fx-background-radius: 0 0 0 10; -fx-border-radius: 0 0 0 10;";
-                    case "5,5" -> "-fx-background-radius: 0 0 10 0; -fx-border-radius: 0 0 10 0;";
-                    default -> "-fx-background-radius: 0; -fx-border-radius: 0;";
-                };
+    /**
+     * Hands the result of a request made on the board worker to the JavaFX thread
+     * The result is dropped if the request was cancelled or the board changed since it was made
+     * @param request  the future result, computed on a snapshot of the current board
+     * @param onResult receives the result on the JavaFX thread
+     * @param <T>      the type of the result
+     * @return the request, so it can be cancelled
+     */
+    private <T> CompletableFuture<T> onBoardWorker(CompletableFuture<T> request, Consumer<T> onResult) {
+        long version = boardVersion;
+        request.whenComplete((result, error) -> Platform.runLater(() -> {
+            if (request.isCancelled() || version != boardVersion) {
+                return;
+            }
+            if (error != null) {
+                System.out.println("Board worker task failed: " + error.getMessage());
+                return;
+            }
+            onResult.accept(result);
+        }));
+        return request;
+    }
 
-                // Default colors (all light)
-                String top = "#dfe6e9";
-                String right = "#dfe6e9";
-                String bottom = "#dfe6e9";
-                String left = "#dfe6e9";
+    /**
+     * Drops the hint and check requests made for the board as it was before a change
+     */
+    private void cancelBoardTasks() {
+        boardVersion++;
+        if (pendingHint != null) {
+            pendingHint.cancel(false);
+            pendingHint = null;
+        }
+        if (pendingCheck != null) {
+            pendingCheck.cancel(false);
+            pendingCheck = null;
+        }
+    }
 
-// Vertical borders
-                if (col == 2) right = "#636e72"; // borde derecho del bloque vertical
-                if (col == 3) left = "#636e72";  // borde izquierdo del bloque siguiente
+    /**
+     * Action triggered when the undo button is pressed
+     */
+    @FXML
+    private void undoAction() {
+        if (journal == null) {
+            return;
+        }
+        errorLabel.setText(journal.undo() ? "" : "No hay jugadas para deshacer");
+    }
+
+    /**
+     * Action triggered when the redo button is pressed
+     */
+    @FXML
+    private void redoAction() {
+        if (journal == null) {
+            return;
+        }
+        errorLabel.setText(journal.redo() ? "" : "No hay jugadas para rehacer");
+    }
+
+    /**
+     * Replaces the strategy used by the help button for the current board
+     * @param helpStrategy the strategy to use from now on
+     */
+    public void setHelpStrategy(HelpStrategy helpStrategy) {
+        this.helpStrategy = helpStrategy;
+    }
 
-// horizontal borders
-                if (row == 1 || row == 3) bottom = "#636e72"; // borde inferior del bloque horizontal
-                if (row == 2 || row == 4) top = "#636e72";    // borde superior del bloque siguiente
+    /**
+     * Creates the help strategy chosen with -Dsudoku.help for the current board
+     * @return a LogicHelpStrategy unless "default" was requested
+     */
+    private HelpStrategy createHelpStrategy() {
+        if ("default".equals(System.getProperty("sudoku.help"))) {
+            return new DefaultHelpStrategy(board, view);
+        }
+        return new LogicHelpStrategy(board, view);
+    }
 
+    /**
+     * Returns the name shown to the player for the technique behind a suggestion
+     * @param suggestion the suggestion with a technique
+     * @return the name of the technique
+     */
+    private String techniqueName(Suggestion suggestion) {
+        return switch (suggestion.technique()) {
+            case NAKED_SINGLE -> "único candidato";
+            case HIDDEN_SINGLE -> "único lugar posible";
+            case LOCKED_CANDIDATES -> "candidatos bloqueados";
+            case NAKED_PAIR -> "pareja desnuda";
+            case HIDDEN_PAIR -> "pareja oculta";
+            case SOLUTION -> "tomado de la solución";
+        };
+    }
 
+    /**
+     * Fills the Sudoku board with initial values and prepares the UI
+     * Builds the view chosen with -Dsudoku.board and shows the numbers of the board in it
+     * @param journal the journal of the game to show, holding its board
+     */
+    private void fillBoard(MoveJournal journal) {
+        cancelBoardTasks();
+        conflicts = new int[0];
+        this.journal = journal;
+        board = journal.getBoard();
+        boardGridPane.getChildren().clear();
+        prepareGrid(boardSize.getSize());
+        view = canvasBoard ? fillCanvas() : fillCells();
 
-                String darkBorders = "-fx-border-color: " + top + " " + right + " " + bottom + " " + left + ";";
+        helpStrategy = createHelpStrategy();
+        board.addListener(this::showCell);
+        board.addListener((row, col, oldValue, newValue) -> {
+            cancelBoardTasks();
+            checkBoard();
+        });
+        if (saveFile != null) {
+            saveFile.track(journal);
+        }
+        // A resumed game may already hold numbers that rule out every solution
+        checkBoard();
+        StartupTimer.markBoardShown();
+    }
 
-                textField.setUserData(borderRadius);
-                textField.setStyle(baseStyle + borderRadius + darkBorders);
-                textField.setMaxSize(35, 35);
-                textField.setAlignment(Pos.CENTER);
-                textField.setBackground(null);
+    /**
+     * Creates one text field per cell, marks each cell for the stylesheet and sets up its input validation
+     * @return the view over the text fields
+     */
+    private BoardView fillCells() {
+        int size = boardSize.getSize();
+        TextField[][] cells = new TextField[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int number = board.get(row, col);
+                TextField textField = new TextField();
+                CellStyle.decorate(textField, boardSize, row, col);
+                textField.pseudoClassStateChanged(CellStyle.GIVEN, journal.isGiven(row, col));
 
                 if (number > 0) {
                     textField.setText(String.valueOf(number));
@@ -103,10 +449,250 @@ public class SudokuController {
                 boardGridPane.setRowIndex(textField, row);
                 boardGridPane.setColumnIndex(textField, col);
                 boardGridPane.getChildren().add(textField);
+                cells[row][col] = textField;
 
                 new NumberValidationHandler(textField, row, col);
             }
         }
+        return new FieldBoardView(cells);
+    }
+
+    /**
+     * Creates the single canvas that draws the whole board and handles its keyboard and mouse input
+     * @return the canvas view
+     */
+    private BoardView fillCanvas() {
+        CanvasBoardView canvas = new CanvasBoardView(boardSize, new CanvasBoardView.CellInput() {
+            @Override
+            public void numberTyped(int row, int col, int number) {
+                typeNumber(row, col, number);
+            }
+
+            @Override
+            public void cellErased(int row, int col) {
+                eraseCell(row, col);
+            }
+        });
+        int size = boardSize.getSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                canvas.setGiven(row, col, journal.isGiven(row, col));
+                canvas.setNumber(row, col, board.get(row, col));
+            }
+        }
+        boardGridPane.add(canvas, 0, 0);
+        canvas.requestFocus();
+        return canvas;
+    }
+
+    /**
+     * Reflects a change of the model in the matching cell, so only the cells that changed are touched
+     * Cells that receive a number are locked; cells that are emptied become editable again
+     * @param row      the row index of the cell
+     * @param col      the column index of the cell
+     * @param oldValue the number the cell held before
+     * @param newValue the number the cell holds now (0 if it is empty)
+     */
+    private void showCell(int row, int col, int oldValue, int newValue) {
+        view.setNumber(row, col, newValue);
+    }
+
+    /**
+     * Checks a number typed by the player, recording the time taken as a KeystrokeEvent and in the keystroke metrics
+     * @param row    the row index of the cell
+     * @param col    the column index of the cell
+     * @param number the number typed, from 1 to the size of the board
+     */
+    private void typeNumber(int row, int col, int number) {
+        KeystrokeEvent keystroke = new KeystrokeEvent();
+        keystroke.begin();
+        long start = System.nanoTime();
+        ValidationResult validationResult = validateNumber(row, col, number);
+        Metrics.timer("keystroke.validate").record(System.nanoTime() - start);
+        keystroke.end();
+        if (keystroke.shouldCommit()) {
+            keystroke.row = row;
+            keystroke.col = col;
+            keystroke.value = number;
+            keystroke.result = validationResult.name();
+            keystroke.commit();
+        }
+    }
+
+    /**
+     * Checks a number typed in a cell, places it if it is valid and styles the cell accordingly
+     * @param row    the row index of the cell
+     * @param col    the column index of the cell
+     * @param number the number typed by the player
+     * @return the result of the check
+     */
+    private ValidationResult validateNumber(int row, int col, int number) {
+        ValidationResult validationResult = board.isValid(row, col, number);
+
+        if (validationResult.isValid()) {
+            view.setState(row, col, CellStyle.VALID);
+            errorLabel.setText("");
+            board.set(row, col, number);
+        } else {
+            view.setState(row, col, CellStyle.INVALID);
+            displayErrorMessage(validationResult);
+        }
+        return validationResult;
+    }
+
+    /**
+     * Erases a cell at the request of the player
+     * A number on the board is removed unless it is a given; a cell left blank goes back to the plain look
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     */
+    private void eraseCell(int row, int col) {
+        if (board.get(row, col) == 0) {
+            view.setState(row, col, null);
+        } else if (!journal.isGiven(row, col)) {
+            board.clear(row, col);
+        } else {
+            return;
+        }
+        errorLabel.setText("");
+    }
+
+    /**
+     * Displays a custom error message based on the validation result
+     * @param errorType the validation error type (row, column, or block)
+     */
+    private void displayErrorMessage(ValidationResult errorType) {
+        String message = switch (errorType) {
+            case ROW -> "El número ya existe en esta fila";
+            case COLUMN -> "El número ya existe en esta columna";
+            case BLOCK -> "El número ya existe en este bloque "
+                    + boardSize.getBlockRows() + "x" + boardSize.getBlockCols();
+            case VALID -> "";
+        };
+
+        errorLabel.setText(message);
+    }
+
+    /**
+     * Opens the puzzle bank given with -Dsudoku.bank, if any
+     * The bank is ignored if it cannot be read or holds boards of another size
+     */
+    private void openBank() {
+        String path = System.getProperty("sudoku.bank");
+        if (path == null) {
+            return;
+        }
+        try {
+            PuzzleBank opened = PuzzleBank.open(Path.of(path));
+            if (opened.getBoardSize() == boardSize) {
+                bank = opened;
+            } else {
+                System.out.println("Ignoring puzzle bank with " + opened.getBoardSize() + " boards: " + path);
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to open the puzzle bank: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Opens the saved game directory given with -Dsudoku.save, or ~/.sudoku by default
+     * Moves are saved in the background and the pending ones are written when the application exits
+     */
+    private void openSaveFile() {
+        Path directory = Path.of(System.getProperty("sudoku.save",
+                Path.of(System.getProperty("user.home"), ".sudoku").toString()));
+        try {
+            saveFile = SaveFile.open(directory);
+            Runtime.getRuntime().addShutdownHook(new Thread(saveFile::close));
+        } catch (IOException e) {
+            System.out.println("Failed to open the saved game, progress will not be saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Restores the saved game if there is one for the chosen board size
+     * @return the journal of the saved game, or null to start a new game
+     */
+    private MoveJournal resumeGame() {
+        MoveJournal resumed = saveFile.load();
+        if (resumed == null || resumed.getBoard().getBoardSize() != boardSize) {
+            return null;
+        }
+        return resumed;
+    }
+
+    /**
+     * Prepares the board of a new game without blocking the JavaFX thread
+     * Takes a random puzzle from the bank when there is one for the chosen difficulty, then tries the puzzle service,
+     * and takes a prefetched board otherwise
+     * @return the future board to play; already complete when a board was ready
+     */
+    private CompletableFuture<Board> nextBoard() {
+        if (bank != null) {
+            Board loaded = bank.random(difficulty, random);
+            if (loaded != null) {
+                return CompletableFuture.completedFuture(loaded);
+            }
+        }
+        if (server != null) {
+            return fetchBoard().thenCompose(fetched -> fetched != null
+                    ? CompletableFuture.completedFuture(fetched)
+                    : prefetcher.next(boardSize, difficulty));
+        }
+        return prefetcher.next(boardSize, difficulty);
+    }
+
+    /**
+     * Asks the puzzle service for a board of the chosen size and difficulty
+     * @return the future board, completed with null if the service cannot be reached or answers with an error
+     */
+    private CompletableFuture<Board> fetchBoard() {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(server + "/puzzle?size=" + boardSize.getSize() + "&difficulty=" + difficulty))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        return HttpClient.newHttpClient().sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() == 200) {
+                        Board fetched = PuzzleFormat.parse(response.body());
+                        if (fetched.getBoardSize() == boardSize) {
+                            return fetched;
+                        }
+                    }
+                    System.out.println("Puzzle server answered " + response.statusCode() + ", generating locally");
+                    return null;
+                })
+                .exceptionally(error -> {
+                    System.out.println("Failed to fetch a puzzle from the server: " + error.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Creates one row and one column constraint per cell and makes the window big enough for the board
+     * The canvas needs no constraints, since it is the only child of the grid
+     * @param size the number of rows (and columns) of the board
+     */
+    private void prepareGrid(int size) {
+        boardGridPane.getColumnConstraints().clear();
+        boardGridPane.getRowConstraints().clear();
+        for (int i = 0; i < size && !canvasBoard; i++) {
+            ColumnConstraints column = new ColumnConstraints();
+            column.setHalignment(HPos.CENTER);
+            column.setHgrow(Priority.SOMETIMES);
+            column.setPrefWidth(100.0);
+            boardGridPane.getColumnConstraints().add(column);
+
+            RowConstraints row = new RowConstraints();
+            row.setValignment(VPos.CENTER);
+            row.setPrefHeight(CELL_SIZE);
+            boardGridPane.getRowConstraints().add(row);
+        }
+
+        double side = Math.max(MIN_WINDOW_SIZE, size * CELL_SIZE + BOARD_MARGIN);
+        if (boardGridPane.getParent() instanceof Region root) {
+            root.setPrefSize(side, side);
+        }
     }
 
 
@@ -130,13 +716,13 @@ public class SudokuController {
         }
 
         /**
-         * Configures the input filtering, validation, and dynamic styling for the cell.
+         * Configures the input filtering, validation, and state of the cell.
          */
         private void handleNumberTextField() {
-            // Only allows numbers from 1 to 6
+            // Only allows numbers from 1 to the size of the board
             UnaryOperator<TextFormatter.Change> filter = change -> {
                 String newText = change.getControlNewText();
-                if (newText.matches("[1-6]?")) {
+                if (newText.isEmpty() || parseNumber(newText) > 0) {
                     return change;
                 }
                 return null;
@@ -147,64 +733,83 @@ public class SudokuController {
             textField.setOnKeyReleased(event -> {
                 String text = textField.getText();
                 if (!textField.isEditable()) {
+                    // Numbers placed by the player or by a hint can be erased; the givens cannot
+                    if (event.getCode() == KeyCode.BACK_SPACE || event.getCode() == KeyCode.DELETE) {
+                        eraseCell(row, col);
+                    }
+                    return;
+                }
+                // Wait for the second digit unless the number cannot grow any further or Enter was pressed
+                if (!text.isEmpty() && event.getCode() != KeyCode.ENTER
+                        && Integer.parseInt(text) * 10 <= boardSize.getSize()) {
                     return;
                 }
                 if (text.isEmpty()) {
-                    // Reset style to white and normal border when field is empty
-                    textField.setStyle(
-                            "-fx-background-color: white; " +
-                                    "-fx-border-color: #dfe6e9; " +  // normal border
-                                    "-fx-border-width: 1px; " +
-                                    textField.getUserData() + // Maintain the border-radius of the specific corner
-                                    "-fx-background-radius: 8;"
-                    );
-                    errorLabel.setText("");  // Clear error message
+                    // Back to the plain look when the field is emptied
+                    eraseCell(row, col);
                     return;
                 }
 
-                int number = Integer.parseInt(text);
-                String validationResult = board.isValid(row, col, number);
-
-                if (validationResult.equals("Válido")) {
-                    // Apply style with background and border color when the number is valid
-                    textField.setStyle(
-                            "-fx-background-color: #dff9fb;" +
-                                    "-fx-border-color: #74b9ff;" +
-                                    "-fx-border-width: 2;" +
-                                    textField.getUserData() + // Mantener el border-radius de la esquina específica
-                                    "-fx-background-radius: 8;"
-                    );
-                    errorLabel.setText("");
-                    textField.setEditable(false);
-                    board.getBoard().get(row).set(col, number);
-                } else {
-                    // Apply style with background and border color when the number is invalid
-                    textField.setStyle(
-                            "-fx-background-color: #ffa7a7;" +
-                                    "-fx-border-color: #ff7675;" +
-                                    "-fx-border-width: 2;" +
-                                    textField.getUserData() + // Mantener el border-radius de la esquina específica
-                                    "-fx-background-radius: 8;"
-                    );
-                    displayErrorMessage(validationResult);
-                }
+                typeNumber(row, col, Integer.parseInt(text));
             });
 
         }
 
         /**
-         * Displays a custom error message based on the validation result
-         * @param errorType the validation error type (row, column, or block)
+         * Parses the text of the cell as a number of the board
+         * @param text the text to parse
+         * @return the number, or 0 if the text is not a number from 1 to the size of the board
          */
-        private void displayErrorMessage(String errorType) {
-            String message = switch (errorType) {
-                case "Fila" -> "El número ya existe en esta fila";
-                case "Columna" -> "El número ya existe en esta columna";
-                case "Bloque" -> "El número ya existe en este bloque 2x3";
-                default -> "";
-            };
+        private int parseNumber(String text) {
+            if (text.length() > 2 || !text.chars().allMatch(Character::isDigit)) {
+                return 0;
+            }
+            int number = Integer.parseInt(text);
+            return number <= boardSize.getSize() ? number : 0;
+        }
+    }
+
+    // View of the board with one text field per cell, styled by the stylesheet
+    private static class FieldBoardView implements BoardView {
+        private final TextField[][] cells;
+
+        /**
+         * Constructs a view over the text fields of a board
+         * @param cells the text field of every cell, indexed by row and column
+         */
+        FieldBoardView(TextField[][] cells) {
+            this.cells = cells;
+        }
+
+        @Override
+        public void setNumber(int row, int col, int value) {
+            TextField textField = cells[row][col];
+            if (value == 0) {
+                textField.setText("");
+                textField.setEditable(true);
+                CellStyle.show(textField, null);
+            } else {
+                String text = String.valueOf(value);
+                if (!text.equals(textField.getText())) {
+                    textField.setText(text);
+                }
+                textField.setEditable(false);
+            }
+        }
+
+        @Override
+        public boolean isBlank(int row, int col) {
+            return cells[row][col].getText().isEmpty();
+        }
+
+        @Override
+        public void setState(int row, int col, PseudoClass state) {
+            CellStyle.show(cells[row][col], state);
+        }
 
-            errorLabel.setText(message);
+        @Override
+        public void setConflict(int row, int col, boolean conflict) {
+            cells[row][col].pseudoClassStateChanged(CellStyle.CONFLICT, conflict);
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for the generation of a board; its duration is the generation time.
+ */
+@Name("com.example.sudoku.Generation")
+@Label("Board Generation")
+@Category("Sudoku")
+@Description("Generation of a new board: complete grid search plus clue selection")
+@StackTrace(false)
+public final class GenerationEvent extends jdk.jfr.Event {
+    @Label("Board Size")
+    public int size;
+
+    @Label("Clues Per Block")
+    public int cluesPerBlock;
+
+    @Label("Backtracks")
+    @Description("Numbers taken back while filling the grid")
+    public int backtracks;
+
+    @Label("Restarts")
+    @Description("Times the search gave up and started over from an empty grid")
+    public int restarts;
+}
@@ -0,0 +1,24 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a hint asked through the help button; its duration is the time to find and show it.
+ */
+@Name("com.example.sudoku.Hint")
+@Label("Hint")
+@Category("Sudoku")
+@Description("Search and display of a hint by a help strategy")
+public final class HintEvent extends jdk.jfr.Event {
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Found")
+    public boolean found;
+
+    @Label("Technique")
+    public String technique;
+}
@@ -0,0 +1,30 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a number typed by the player; its duration is the time spent on the
+ * JavaFX thread validating the number and updating the cell.
+ */
+@Name("com.example.sudoku.Keystroke")
+@Label("Keystroke")
+@Category("Sudoku")
+@Description("Validation of a number typed in a cell")
+@StackTrace(false)
+public final class KeystrokeEvent extends jdk.jfr.Event {
+    @Label("Row")
+    public int row;
+
+    @Label("Column")
+    public int col;
+
+    @Label("Value")
+    public int value;
+
+    @Label("Result")
+    public String result;
+}
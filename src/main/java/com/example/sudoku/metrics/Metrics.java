@@ -0,0 +1,185 @@
+package com.example.sudoku.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process registry of running counters and latency histograms.
+ *
+ * Metrics are created on first use and live until the process exits. Updating them never locks:
+ * counters are {@link LongAdder}s and histograms count latencies in power-of-two buckets of
+ * nanoseconds, so threads generating boards in parallel do not slow each other down.
+ * {@link #dump()} renders every metric as text; the game prints it on exit with
+ * -Dsudoku.metrics=true and the puzzle service serves it at {@code /metrics}.
+ */
+public final class Metrics {
+    /** One call to {@code Board.isValid} in this many is timed and recorded as a {@link ValidationEvent}. */
+    public static final int VALIDATION_SAMPLE = 64;
+
+    private static final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private static final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    static {
+        if (Boolean.getBoolean("sudoku.metrics")) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.print(dump())));
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the counter with a name, creating it on first use.
+     *
+     * @param name the name of the counter.
+     * @return the counter.
+     */
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Returns the latency histogram with a name, creating it on first use.
+     *
+     * @param name the name of the histogram.
+     * @return the histogram.
+     */
+    public static Timer timer(String name) {
+        return timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    /**
+     * Renders every counter and histogram, sorted by name.
+     *
+     * @return one line per metric.
+     */
+    public static String dump() {
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            out.append(String.format(Locale.ROOT, "%-28s count=%d%n", entry.getKey(), entry.getValue().get()));
+        }
+        for (Map.Entry<String, Timer> entry : new TreeMap<>(timers).entrySet()) {
+            Timer timer = entry.getValue();
+            long count = timer.count();
+            out.append(String.format(Locale.ROOT,
+                    "%-28s count=%d mean=%.1fus p50<=%.1fus p99<=%.1fus max=%.1fus%n",
+                    entry.getKey(), count, count == 0 ? 0.0 : timer.total() / 1e3 / count,
+                    timer.percentile(0.50) / 1e3, timer.percentile(0.99) / 1e3, timer.max() / 1e3));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Running total of something that happens, such as backtracks of the generator.
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        private Counter() {
+        }
+
+        /**
+         * Adds to the counter.
+         *
+         * @param amount the amount to add.
+         */
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        /**
+         * Adds one to the counter.
+         */
+        public void increment() {
+            value.increment();
+        }
+
+        /**
+         * Returns the current total.
+         *
+         * @return the sum of everything added so far.
+         */
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * Histogram of latencies; bucket {@code i} counts the durations below {@code 2^i} nanoseconds
+     * that did not fit in a lower bucket.
+     */
+    public static final class Timer {
+        private static final int BUCKETS = 40;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private Timer() {
+        }
+
+        /**
+         * Records one duration.
+         *
+         * @param nanos the duration in nanoseconds.
+         */
+        public void record(long nanos) {
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+            buckets.incrementAndGet(bucket);
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        /**
+         * Returns the number of recorded durations.
+         *
+         * @return the count.
+         */
+        public long count() {
+            return count.sum();
+        }
+
+        /**
+         * Returns the sum of the recorded durations.
+         *
+         * @return the total in nanoseconds.
+         */
+        public long total() {
+            return total.sum();
+        }
+
+        /**
+         * Returns the longest recorded duration.
+         *
+         * @return the maximum in nanoseconds.
+         */
+        public long max() {
+            return max.get();
+        }
+
+        /**
+         * Returns an upper bound of a percentile: the top of the bucket that holds it.
+         *
+         * @param fraction the percentile as a fraction (for example 0.99).
+         * @return the bound in nanoseconds, or 0 if nothing was recorded.
+         */
+        public long percentile(double fraction) {
+            long target = (long) Math.ceil(fraction * count());
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= target && seen > 0) {
+                    return Math.min(1L << i, max());
+                }
+            }
+            return max();
+        }
+    }
+}
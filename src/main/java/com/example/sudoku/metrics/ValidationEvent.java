@@ -0,0 +1,30 @@
+package com.example.sudoku.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a sampled call to {@code Board.isValid}; only one call in
+ * {@link Metrics#VALIDATION_SAMPLE} per board is recorded, so the check stays cheap.
+ */
+@Name("com.example.sudoku.Validation")
+@Label("Validation")
+@Category("Sudoku")
+@Description("Sampled check of a number against its row, column and block")
+@StackTrace(false)
+public final class ValidationEvent extends jdk.jfr.Event {
+    @Label("Row")
+    public int row;
+
+    @Label("Column")
+    public int col;
+
+    @Label("Value")
+    public int value;
+
+    @Label("Result")
+    public String result;
+}
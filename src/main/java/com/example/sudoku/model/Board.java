@@ -1,161 +1,566 @@
 package com.example.sudoku.model;
 
+import com.example.sudoku.metrics.GenerationEvent;
+import com.example.sudoku.metrics.Metrics;
+import com.example.sudoku.metrics.ValidationEvent;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Random;
+import java.util.random.RandomGenerator;
 
 /**
- * This class generates a 6x6 board divided into 2x3 blocks.
- * In each 2x3 block exactly one cell is assigned a random number (from 1 to 6),
- * and all the other cells are left as 0. Additionally, the placed number is not repeated
- * in any row or column across the entire board.
+ * This class generates a Sudoku board of any supported {@link BoardSize} (6x6 with 2x3 blocks by default).
+ * A complete valid grid is generated first, and then exactly two of its numbers are kept in each block
+ * while all the other cells are left as 0. Because the clues are taken from a complete grid, the
+ * board always has at least one solution, and that grid is kept available through {@link #getSolution(int, int)}.
  *
- * The board is represented as a list of lists (ArrayLists) rather than using arrays,
- * and the board is generated using a backtracking algorithm that works block by block.
+ * The board is stored as a flat int array in row-major order. For every row, column and block
+ * a bitmask keeps track of the numbers already placed (bit n is set when n is present), so
+ * checking a candidate is a couple of bit tests. The masks are updated on every set and clear.
+ * A list of lists view is still offered through {@link #getBoard()} for the UI.
  *
  * Java JDK 17.
  */
 public class Board {
+    // Number of numbers kept in each block when no difficulty is given.
+    private static final int CLUES_PER_BLOCK = 2;
+
+    // Number of backtracks allowed per cell before the grid generation starts over.
+    private static final int BACKTRACKS_PER_CELL = 4;
+
     // Board dimensions and block dimensions.
-    private final int SIZE = 6;
-    private final int BLOCK_ROWS = 2;
-    private final int BLOCK_COLS = 3;
+    private final BoardSize boardSize;
+    private final int size;
+    private final int blockRows;
+    private final int blockCols;
+
+    // Bitmask with bits 1..size set.
+    private final int fullMask;
+
+    // The cells of the board in row-major order (0 means empty)
+    private final int[] cells;
+
+    // Bitmasks of the numbers present in each row, column and block
+    private final int[] rowMasks;
+    private final int[] colMasks;
+    private final int[] blockMasks;
+
+    // The complete grid the clues were taken from, or null if it is unknown
+    private int[] solution;
 
-    // Number of block rows and block columns.
-    private final int TOTAL_BLOCK_ROWS = SIZE / BLOCK_ROWS; // 6/2 = 3
-    private final int TOTAL_BLOCK_COLS = SIZE / BLOCK_COLS; // 6/3 = 2
-    private final int TOTAL_BLOCKS = TOTAL_BLOCK_ROWS * TOTAL_BLOCK_COLS; // 3 * 2 = 6
+    // Pencil marks kept up to date on every change, created on first use
+    private Candidates candidates;
 
-    // The board represented as a List of Lists (each inner list is a row)
-    private final List<List<Integer>> board;
-    private final Random random = new Random();
+    // Listeners notified after every change of a cell
+    private final List<CellListener> listeners = new ArrayList<>();
+
+    // List of lists view over the cells (each inner list is a row)
+    private final List<List<Integer>> board = new BoardView();
+
+    // Search statistics of the last generation
+    private int backtracks;
+    private int restarts;
+
+    // Calls to isValid so far, to time one in Metrics.VALIDATION_SAMPLE of them
+    private int validations;
 
     /**
-     * Constructor initializes the board with zeros and then fills each block with one number.
+     * Constructor generates a 6x6 board with two numbers in each 2x3 block.
      */
     public Board() {
-        board = new ArrayList<>();
-        // Initialize the board with zeros.
-        for (int i = 0; i < SIZE; i++) {
-            List<Integer> row = new ArrayList<>();
-            for (int j = 0; j < SIZE; j++) {
-                row.add(0);
+        this(BoardSize.SIX);
+    }
+
+    /**
+     * Generates a board of the given size with two numbers in each block.
+     *
+     * @param boardSize the geometry of the board.
+     */
+    public Board(BoardSize boardSize) {
+        this(boardSize, new Random());
+    }
+
+    /**
+     * Generates a board of the given size with two numbers in each block, using the given source of
+     * randomness. The same seed always produces the same board.
+     *
+     * @param boardSize the geometry of the board.
+     * @param random    the random generator driving the generation.
+     */
+    public Board(BoardSize boardSize, RandomGenerator random) {
+        this(boardSize, random, CLUES_PER_BLOCK);
+    }
+
+    /**
+     * Generates a board of the given size keeping as many numbers per block as the difficulty asks for.
+     *
+     * @param boardSize  the geometry of the board.
+     * @param difficulty the difficulty that sets the number of clues per block.
+     * @param random     the random generator driving the generation.
+     */
+    public Board(BoardSize boardSize, Difficulty difficulty, RandomGenerator random) {
+        this(boardSize, random, difficulty.cluesPerBlock(boardSize));
+    }
+
+    /**
+     * Creates a board, generating its numbers only if a random generator is given.
+     *
+     * @param boardSize     the geometry of the board.
+     * @param random        the random generator driving the generation, or null to leave every cell empty.
+     * @param cluesPerBlock the number of numbers kept in each block.
+     */
+    private Board(BoardSize boardSize, RandomGenerator random, int cluesPerBlock) {
+        this.boardSize = boardSize;
+        this.size = boardSize.getSize();
+        this.blockRows = boardSize.getBlockRows();
+        this.blockCols = boardSize.getBlockCols();
+        this.fullMask = ((1 << size) - 1) << 1;
+        this.cells = new int[size * size];
+        this.rowMasks = new int[size];
+        this.colMasks = new int[size];
+        this.blockMasks = new int[size];
+        if (random != null) {
+            GenerationEvent event = new GenerationEvent();
+            event.begin();
+            long start = System.nanoTime();
+            fillGrid(random);
+            solution = cells.clone();
+            fillBlocks(random, cluesPerBlock);
+            Metrics.timer("board.generate." + size + "x" + size).record(System.nanoTime() - start);
+            Metrics.counter("board.backtracks").add(backtracks);
+            Metrics.counter("board.restarts").add(restarts);
+            event.end();
+            if (event.shouldCommit()) {
+                event.size = size;
+                event.cluesPerBlock = cluesPerBlock;
+                event.backtracks = backtracks;
+                event.restarts = restarts;
+                event.commit();
             }
-            board.add(row);
-        }
-        // Attempt to fill each block with a valid number.
-        if (!fillBlocks(0)) {
-            System.out.println("Failed to generate the Sudoku board.");
         }
     }
 
     /**
-     * Randomly fills each 2x3 block with two number.
+     * Creates a board with every cell filled: a complete valid grid, which is also its own solution.
      *
-     * @param blockIndex the index of the current block (ranging from 0 to TOTAL_BLOCKS - 1).
-     * @return true if all blocks have been successfully filled; false otherwise.
+     * @param boardSize the geometry of the board.
+     * @param random    the random generator driving the generation.
+     * @return a new complete board.
      */
-    private boolean fillBlocks(int blockIndex) {
-        if (blockIndex == TOTAL_BLOCKS) {
-            return true;
-        }
+    public static Board solved(BoardSize boardSize, RandomGenerator random) {
+        return new Board(boardSize, Objects.requireNonNull(random), boardSize.getSize());
+    }
 
-        int blockRow = blockIndex / TOTAL_BLOCK_COLS;
-        int blockCol = blockIndex % TOTAL_BLOCK_COLS;
-        int startRow = blockRow * BLOCK_ROWS;
-        int startCol = blockCol * BLOCK_COLS;
+    /**
+     * Creates a board with every cell empty and no known solution.
+     *
+     * @param boardSize the geometry of the board.
+     * @return a new empty board.
+     */
+    public static Board empty(BoardSize boardSize) {
+        return new Board(boardSize, null, 0);
+    }
 
-        // Create a list of all positions at the block and mix it
-        List<int[]> blockPositions = new ArrayList<>();
-        for (int i = 0; i < BLOCK_ROWS; i++) {
-            for (int j = 0; j < BLOCK_COLS; j++) {
-                blockPositions.add(new int[]{startRow + i, startCol + j});
+    /**
+     * Fills every cell with a complete valid grid using randomized backtracking.
+     * The next cell is always the empty one with the fewest candidates, and candidates are tried in
+     * random order. If the search needs too many backtracks it starts over from an empty grid, which
+     * keeps the generation time stable even for 16x16 and 25x25 boards.
+     *
+     * @param random the random generator driving the generation.
+     */
+    private void fillGrid(RandomGenerator random) {
+        int budget = BACKTRACKS_PER_CELL * cells.length;
+        backtracks = 0;
+        restarts = 0;
+        int[] order = new int[cells.length];
+        while (true) {
+            int[] remaining = {budget};
+            if (fillCell(0, order, remaining, random)) {
+                return;
+            }
+            // Too many dead ends: clear the grid and start again
+            for (int i = 0; i < cells.length; i++) {
+                set(i / size, i % size, 0);
             }
+            restarts++;
         }
-        Collections.shuffle(blockPositions, random); //Randomize positions
+    }
 
-        List<Integer> numbers = new ArrayList<>();
-        for (int n = 1; n <= SIZE; n++) {
-            numbers.add(n);
+    /**
+     * Places a number in the empty cell with the fewest candidates and recurses.
+     *
+     * @param filled    how many cells have been filled so far.
+     * @param order     the cell filled at each depth, used to undo the placements.
+     * @param remaining single-element array with the backtracks still allowed.
+     * @param random    the random generator driving the generation.
+     * @return true if the grid was completed; false if this branch failed or the budget ran out.
+     */
+    private boolean fillCell(int filled, int[] order, int[] remaining, RandomGenerator random) {
+        if (filled == cells.length) {
+            return true;
         }
-        Collections.shuffle(numbers, random); // Randomize numbers
 
-        // Try all possible combinations of 2 cells and 2 numbers
-        for (int i = 0; i < blockPositions.size(); i++) {
-            for (int j = i + 1; j < blockPositions.size(); j++) {
-                int[] pos1 = blockPositions.get(i);
-                int[] pos2 = blockPositions.get(j);
-
-                for (int m = 0; m < numbers.size(); m++) {
-                    for (int n = m + 1; n < numbers.size(); n++) {
-                        int num1 = numbers.get(m);
-                        int num2 = numbers.get(n);
+        // Choose the empty cell with the fewest candidates
+        int chosen = -1;
+        int chosenMask = 0;
+        int fewest = Integer.MAX_VALUE;
+        for (int i = 0; i < cells.length && fewest > 1; i++) {
+            if (cells[i] == 0) {
+                int mask = candidates(i / size, i % size);
+                int count = Integer.bitCount(mask);
+                if (count < fewest) {
+                    fewest = count;
+                    chosen = i;
+                    chosenMask = mask;
+                }
+            }
+        }
 
-                        if (isValid(pos1[0], pos1[1], num1).equals("Válido") && isValid(pos2[0], pos2[1], num2).equals("Válido")) {
-                            board.get(pos1[0]).set(pos1[1], num1);
-                            board.get(pos2[0]).set(pos2[1], num2);
+        int row = chosen / size;
+        int col = chosen % size;
+        order[filled] = chosen;
+        while (chosenMask != 0) {
+            // Take a random candidate out of the mask
+            int pick = random.nextInt(Integer.bitCount(chosenMask));
+            int bits = chosenMask;
+            for (int k = 0; k < pick; k++) {
+                bits &= bits - 1;
+            }
+            int bit = Integer.lowestOneBit(bits);
+            chosenMask &= ~bit;
 
-                            if (fillBlocks(blockIndex + 1)) {
-                                return true;
-                            }
+            set(row, col, Integer.numberOfTrailingZeros(bit));
+            if (fillCell(filled + 1, order, remaining, random)) {
+                return true;
+            }
+            // Backtrack
+            set(row, col, 0);
+            backtracks++;
+            if (--remaining[0] < 0) {
+                return false;
+            }
+        }
+        return false;
+    }
 
-                            // Backtrack
-                            board.get(pos1[0]).set(pos1[1], 0);
-                            board.get(pos2[0]).set(pos2[1], 0);
-                        }
+    /**
+     * Keeps some random numbers of the complete grid in each block and empties the other cells.
+     *
+     * @param random        the random generator choosing the cells to keep.
+     * @param cluesPerBlock the number of numbers kept in each block.
+     */
+    private void fillBlocks(RandomGenerator random, int cluesPerBlock) {
+        int[] blockCells = new int[size];
+        for (int blockRow = 0; blockRow < size; blockRow += blockRows) {
+            for (int blockCol = 0; blockCol < size; blockCol += blockCols) {
+                int n = 0;
+                for (int i = 0; i < blockRows; i++) {
+                    for (int j = 0; j < blockCols; j++) {
+                        blockCells[n++] = (blockRow + i) * size + blockCol + j;
                     }
                 }
+                // Partial shuffle: the first cluesPerBlock positions are the cells that are kept
+                for (int i = 0; i < cluesPerBlock; i++) {
+                    int j = i + random.nextInt(n - i);
+                    int swap = blockCells[i];
+                    blockCells[i] = blockCells[j];
+                    blockCells[j] = swap;
+                }
+                for (int i = cluesPerBlock; i < n; i++) {
+                    set(blockCells[i] / size, blockCells[i] % size, 0);
+                }
             }
         }
-        return false;
     }
 
 
     /**
-     * Checks whether placing a candidate number at cell (row, col) violates the row or column uniqueness.
+     * Checks whether placing a candidate number at cell (row, col) violates the row, column or block uniqueness.
+     * Only the bitmasks are consulted, so the check runs in constant time and allocates nothing.
      *
      * @param row       the row index.
      * @param col       the column index.
-     * @param candidate the number to place (from 1 to 6).
-     * @return true if the candidate can be placed without conflict; false otherwise.
+     * @param candidate the number to place (from 1 to size).
+     * @return {@link ValidationResult#VALID} if the candidate can be placed without conflict;
+     *         otherwise the first rule that is broken (row, column or block).
      */
-    public String isValid(int row, int col, int candidate) {
+    public ValidationResult isValid(int row, int col, int candidate) {
+        if (++validations % Metrics.VALIDATION_SAMPLE != 0) {
+            return check(row, col, candidate);
+        }
+        ValidationEvent event = new ValidationEvent();
+        event.begin();
+        long start = System.nanoTime();
+        ValidationResult result = check(row, col, candidate);
+        Metrics.timer("board.isValid.sampled").record(System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.row = row;
+            event.col = col;
+            event.value = candidate;
+            event.result = result.name();
+            event.commit();
+        }
+        return result;
+    }
+
+    private ValidationResult check(int row, int col, int candidate) {
+        int bit = 1 << candidate;
+
         // Validate if it already exists in the row
-        for (int j = 0; j < SIZE; j++) {
-            if (board.get(row).get(j) == candidate) {
-                return "Fila";
-            }
+        if ((rowMasks[row] & bit) != 0) {
+            return ValidationResult.ROW;
         }
 
         // Validate if it already exists in the column
-        for (int i = 0; i < SIZE; i++) {
-            if (board.get(i).get(col) == candidate) {
-                return "Columna";
-            }
+        if ((colMasks[col] & bit) != 0) {
+            return ValidationResult.COLUMN;
         }
 
-        // Validate in block 2x3
-        int startRow = (row / BLOCK_ROWS) * BLOCK_ROWS;
-        int startCol = (col / BLOCK_COLS) * BLOCK_COLS;
-        for (int i = startRow; i < startRow + BLOCK_ROWS; i++) {
-            for (int j = startCol; j < startCol + BLOCK_COLS; j++) {
-                if (board.get(i).get(j) == candidate && (i != row || j != col)) {
-                    return "Bloque";
-                }
+        // Validate in the block
+        if ((blockMasks[boardSize.blockIndex(row, col)] & bit) != 0) {
+            return ValidationResult.BLOCK;
+        }
+
+        return ValidationResult.VALID; // If there is no conflict
+    }
+
+    /**
+     * Returns the numbers that can still be placed in a cell without breaking any rule.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return a bitmask where bit n is set if n is allowed.
+     */
+    public int candidates(int row, int col) {
+        return fullMask & ~(rowMasks[row] | colMasks[col] | blockMasks[boardSize.blockIndex(row, col)]);
+    }
+
+    /**
+     * Returns the pencil marks of the board, creating them on the first call.
+     * From then on every set and clear also updates the candidates of the affected cells.
+     *
+     * @return the candidate tracker of this board.
+     */
+    public Candidates getCandidates() {
+        if (candidates == null) {
+            candidates = new Candidates(this);
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the number stored in a cell.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return the number in the cell, or 0 if it is empty.
+     */
+    public int get(int row, int col) {
+        return cells[row * size + col];
+    }
+
+    /**
+     * Places a number in a cell, replacing whatever was there, and updates the bitmasks.
+     *
+     * @param row   the row index.
+     * @param col   the column index.
+     * @param value the number to place (from 1 to size), or 0 to empty the cell.
+     */
+    public void set(int row, int col, int value) {
+        if (value < 0 || value > size) {
+            throw new IllegalArgumentException("Value out of range: " + value);
+        }
+        int index = row * size + col;
+        int block = boardSize.blockIndex(row, col);
+        int previous = cells[index];
+        if (previous != 0) {
+            int mask = ~(1 << previous);
+            rowMasks[row] &= mask;
+            colMasks[col] &= mask;
+            blockMasks[block] &= mask;
+        }
+        cells[index] = value;
+        if (value != 0) {
+            int bit = 1 << value;
+            rowMasks[row] |= bit;
+            colMasks[col] |= bit;
+            blockMasks[block] |= bit;
+        }
+        if (previous != value) {
+            if (candidates != null) {
+                candidates.cellChanged(row, col, previous, value);
+            }
+            for (int i = 0; i < listeners.size(); i++) {
+                listeners.get(i).cellChanged(row, col, previous, value);
             }
         }
+    }
+
+    /**
+     * Registers a listener that is told about every cell that changes its number from now on.
+     *
+     * @param listener the listener to add.
+     */
+    public void addListener(CellListener listener) {
+        listeners.add(Objects.requireNonNull(listener));
+    }
+
+    /**
+     * Stops notifying a listener.
+     *
+     * @param listener the listener to remove.
+     */
+    public void removeListener(CellListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Empties a cell and updates the bitmasks.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     */
+    public void clear(int row, int col) {
+        set(row, col, 0);
+    }
+
+    /**
+     * Returns the number a cell holds in the complete grid the board was generated from.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return the number of the solution, or 0 if the solution is unknown.
+     */
+    public int getSolution(int row, int col) {
+        return solution == null ? 0 : solution[row * size + col];
+    }
+
+    /**
+     * Replaces the known solution of the board.
+     *
+     * @param solution the complete grid in row-major order; it is kept without copying.
+     */
+    void setSolution(int[] solution) {
+        this.solution = solution;
+    }
+
+    /**
+     * Returns the geometry of the board.
+     *
+     * @return the board size.
+     */
+    public BoardSize getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Returns the number of rows (and columns) of the board.
+     *
+     * @return the side length of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of rows of each block.
+     *
+     * @return the block height.
+     */
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    /**
+     * Returns the number of columns of each block.
+     *
+     * @return the block width.
+     */
+    public int getBlockCols() {
+        return blockCols;
+    }
 
-        return "Válido"; // If there is no conflict
+    /**
+     * Returns how many times the last generation had to undo a placement.
+     *
+     * @return the number of backtracks.
+     */
+    public int getBacktracks() {
+        return backtracks;
     }
 
+    /**
+     * Returns how many times the last generation gave up and started from an empty grid.
+     *
+     * @return the number of restarts.
+     */
+    public int getRestarts() {
+        return restarts;
+    }
 
     /**
      * Returns the generated board.
+     * The returned lists are a live view over the cells: reading them reflects the current state and
+     * setting an element goes through {@link #set(int, int, int)} so the bitmasks stay consistent.
      *
      * @return a list of lists representing the board.
      */
     public List<List<Integer>> getBoard() {
         return board;
     }
+
+    /**
+     * Read/write list view over the rows of the board.
+     */
+    private class BoardView extends AbstractList<List<Integer>> {
+        private List<List<Integer>> rows;
+
+        @Override
+        public List<Integer> get(int row) {
+            if (rows == null) {
+                rows = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    rows.add(new RowView(i));
+                }
+            }
+            return rows.get(row);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Read/write list view over a single row of the board.
+     */
+    private class RowView extends AbstractList<Integer> {
+        private final int row;
+
+        RowView(int row) {
+            this.row = row;
+        }
+
+        @Override
+        public Integer get(int col) {
+            return Board.this.get(row, Objects.checkIndex(col, size));
+        }
+
+        @Override
+        public Integer set(int col, Integer value) {
+            int previous = Board.this.get(row, Objects.checkIndex(col, size));
+            Board.this.set(row, col, value);
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
 }
@@ -0,0 +1,149 @@
+package com.example.sudoku.model;
+
+/**
+ * Supported board geometries.
+ * Each board is a square of {@code size x size} cells divided into blocks of
+ * {@code blockRows x blockCols} cells, and uses the numbers from 1 to {@code size}.
+ */
+public enum BoardSize {
+    /** 4x4 board with 2x2 blocks. */
+    FOUR(2, 2),
+    /** 6x6 board with 2x3 blocks. */
+    SIX(2, 3),
+    /** 9x9 board with 3x3 blocks. */
+    NINE(3, 3),
+    /** 12x12 board with 3x4 blocks. */
+    TWELVE(3, 4),
+    /** 16x16 board with 4x4 blocks. */
+    SIXTEEN(4, 4),
+    /** 25x25 board with 5x5 blocks. */
+    TWENTY_FIVE(5, 5);
+
+    private final int blockRows;
+    private final int blockCols;
+    private final int size;
+
+    // For every cell, the other cells sharing its row, column or block
+    private final int[][] peers;
+
+    // The cells of every row, then every column, then every block
+    private final int[][] units;
+
+    BoardSize(int blockRows, int blockCols) {
+        this.blockRows = blockRows;
+        this.blockCols = blockCols;
+        this.size = blockRows * blockCols;
+        this.peers = new int[size * size][];
+        for (int cell = 0; cell < size * size; cell++) {
+            int row = cell / size;
+            int col = cell % size;
+            int[] cellPeers = new int[2 * (size - 1) + (blockRows - 1) * (blockCols - 1)];
+            int n = 0;
+            for (int other = 0; other < size * size; other++) {
+                int otherRow = other / size;
+                int otherCol = other % size;
+                boolean sameBlock = otherRow / blockRows == row / blockRows && otherCol / blockCols == col / blockCols;
+                if (other != cell && (otherRow == row || otherCol == col || sameBlock)) {
+                    cellPeers[n++] = other;
+                }
+            }
+            peers[cell] = cellPeers;
+        }
+
+        this.units = new int[3 * size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int cell = row * size + col;
+                int block = blockIndex(row, col);
+                int inBlock = (row % blockRows) * blockCols + col % blockCols;
+                units[row][col] = cell;
+                units[size + col][row] = cell;
+                units[2 * size + block][inBlock] = cell;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of rows (and columns) of the board, which is also the largest number.
+     *
+     * @return the side length of the board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of rows of each block.
+     *
+     * @return the block height.
+     */
+    public int getBlockRows() {
+        return blockRows;
+    }
+
+    /**
+     * Returns the number of columns of each block.
+     *
+     * @return the block width.
+     */
+    public int getBlockCols() {
+        return blockCols;
+    }
+
+    /**
+     * Returns the number of cells of the board.
+     *
+     * @return size * size.
+     */
+    public int getCellCount() {
+        return size * size;
+    }
+
+    /**
+     * Returns the index of the block that contains a cell, counting blocks in row-major order.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return the block index (from 0 to size - 1).
+     */
+    public int blockIndex(int row, int col) {
+        return (row / blockRows) * (size / blockCols) + col / blockCols;
+    }
+
+    /**
+     * Returns the cells that share a row, a column or a block with a cell.
+     * The returned array is shared and must not be modified.
+     *
+     * @param cell the cell index in row-major order.
+     * @return the indices of the peers, in row-major order.
+     */
+    public int[] peers(int cell) {
+        return peers[cell];
+    }
+
+    /**
+     * Returns the units of the board: every row, then every column, then every block.
+     * Each unit lists its cells in row-major order. The returned arrays are shared and must not be modified.
+     *
+     * @return 3 * size arrays of size cell indices.
+     */
+    public int[][] units() {
+        return units;
+    }
+
+    /**
+     * Finds the geometry for a given side length.
+     *
+     * @param size the number of rows of the board.
+     * @return the matching board size.
+     * @throws IllegalArgumentException if no supported geometry has that side length.
+     */
+    public static BoardSize of(int size) {
+        for (BoardSize boardSize : values()) {
+            if (boardSize.size == size) {
+                return boardSize;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported board size: " + size);
+    }
+}
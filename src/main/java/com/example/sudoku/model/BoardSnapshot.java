@@ -0,0 +1,193 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Immutable copy of the numbers on a board, packed into a few {@code long}s.
+ *
+ * Every cell takes just enough bits for the numbers 0 to size (3 bits up to 6x6, 4 bits up to 12x12,
+ * 5 bits above), and a cell never straddles two words. A 4x4 board fits in one word, a 6x6 board in
+ * two and a 9x9 board in six. Two snapshots are equal when they have the same size and the same
+ * numbers in the same cells, which makes them cheap keys for sets and maps.
+ *
+ * A snapshot taken from a board that knows its solution packs the solution too, so that the board
+ * rebuilt by {@link #toBoard()} (for example on a worker thread) still knows it. The solution is left
+ * out of equality, and the history of the board is not part of the snapshot.
+ */
+public final class BoardSnapshot {
+    private final BoardSize boardSize;
+    private final long[] words;
+
+    // The known solution packed the same way, or null if it is unknown
+    private final long[] solution;
+
+    private BoardSnapshot(BoardSize boardSize, long[] words, long[] solution) {
+        this.boardSize = boardSize;
+        this.words = words;
+        this.solution = solution;
+    }
+
+    /**
+     * Takes a snapshot of the current numbers of a board.
+     *
+     * @param board the board to copy.
+     * @return the snapshot.
+     */
+    public static BoardSnapshot of(Board board) {
+        BoardSize boardSize = board.getBoardSize();
+        int size = boardSize.getSize();
+        int[] cells = new int[boardSize.getCellCount()];
+        int[] known = new int[cells.length];
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = board.get(cell / size, cell % size);
+            known[cell] = board.getSolution(cell / size, cell % size);
+        }
+        return new BoardSnapshot(boardSize, pack(boardSize, cells), known[0] == 0 ? null : pack(boardSize, known));
+    }
+
+    /**
+     * Packs the cells of a board given in row-major order.
+     *
+     * @param boardSize the geometry of the board.
+     * @param cells     the numbers of the cells, 0 for empty.
+     * @return the snapshot.
+     */
+    static BoardSnapshot of(BoardSize boardSize, int[] cells) {
+        return new BoardSnapshot(boardSize, pack(boardSize, cells), null);
+    }
+
+    private static long[] pack(BoardSize boardSize, int[] cells) {
+        int bits = bitsPerCell(boardSize);
+        int perWord = Long.SIZE / bits;
+        long[] words = new long[wordCount(boardSize)];
+        for (int cell = 0; cell < cells.length; cell++) {
+            words[cell / perWord] |= (long) cells[cell] << (cell % perWord * bits);
+        }
+        return words;
+    }
+
+    private int unpack(long[] packed, int cell) {
+        int bits = bitsPerCell(boardSize);
+        int perWord = Long.SIZE / bits;
+        return (int) (packed[cell / perWord] >>> (cell % perWord * bits)) & ((1 << bits) - 1);
+    }
+
+    /**
+     * Returns the number of bits taken by each cell.
+     */
+    static int bitsPerCell(BoardSize boardSize) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(boardSize.getSize());
+    }
+
+    /**
+     * Returns the number of words of the snapshots of a board size.
+     */
+    static int wordCount(BoardSize boardSize) {
+        int perWord = Long.SIZE / bitsPerCell(boardSize);
+        return (boardSize.getCellCount() + perWord - 1) / perWord;
+    }
+
+    /**
+     * Returns the geometry of the board.
+     *
+     * @return the board size.
+     */
+    public BoardSize getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Returns the number of a cell.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return the number (from 1 to size), or 0 if the cell was empty.
+     */
+    public int get(int row, int col) {
+        return unpack(words, row * boardSize.getSize() + col);
+    }
+
+    /**
+     * Returns the number of filled cells.
+     *
+     * @return the number of cells that are not 0.
+     */
+    public int filled() {
+        int size = boardSize.getSize();
+        int count = 0;
+        for (int cell = 0; cell < boardSize.getCellCount(); cell++) {
+            if (get(cell / size, cell % size) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Unpacks the cells in row-major order.
+     *
+     * @return a new array with the number of every cell.
+     */
+    public int[] toCells() {
+        int size = boardSize.getSize();
+        int[] cells = new int[boardSize.getCellCount()];
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = get(cell / size, cell % size);
+        }
+        return cells;
+    }
+
+    /**
+     * Creates a board holding the numbers of the snapshot, and its solution if the snapshot has one.
+     *
+     * @return a new board.
+     */
+    public Board toBoard() {
+        Board board = Board.empty(boardSize);
+        int size = boardSize.getSize();
+        int[] cells = toCells();
+        for (int cell = 0; cell < cells.length; cell++) {
+            board.set(cell / size, cell % size, cells[cell]);
+        }
+        if (solution != null) {
+            int[] known = new int[cells.length];
+            for (int cell = 0; cell < known.length; cell++) {
+                known[cell] = unpack(solution, cell);
+            }
+            board.setSolution(known);
+        }
+        return board;
+    }
+
+    /**
+     * Returns one packed word; used by {@link SnapshotSet} to store snapshots without the objects.
+     */
+    long word(int index) {
+        return words[index];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof BoardSnapshot snapshot
+                && snapshot.boardSize == boardSize
+                && Arrays.equals(snapshot.words, words);
+    }
+
+    @Override
+    public int hashCode() {
+        long hash = 0;
+        for (long word : words) {
+            hash = (hash + word) * 0x9E3779B97F4A7C15L;
+        }
+        // Finish with the MurmurHash3 mix, so the low bits used by hash tables depend on every word
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return (int) hash;
+    }
+
+    @Override
+    public String toString() {
+        return PuzzleFormat.format(toBoard());
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+
+/**
+ * Incremental pencil marks for a {@link Board}: the numbers each empty cell can still hold.
+ *
+ * The tracker is created by {@link Board#getCandidates()} and the board reports every change to it,
+ * so each placement or removal only touches the cell and its peers. Candidates can also be removed
+ * by hand with {@link #eliminate(int, int, int)} (for example by a solving technique); those
+ * eliminations are kept until the peer that justified them changes.
+ *
+ * Empty cells are kept in buckets by number of candidates, so the cell with the fewest candidates
+ * is found without scanning the board.
+ */
+public final class Candidates {
+    private final Board board;
+    private final BoardSize boardSize;
+    private final int size;
+
+    // Candidate bitmask of each cell (bit n set if n is allowed), 0 for filled cells
+    private final int[] masks;
+
+    // Doubly linked lists of empty cells, one per number of candidates
+    private final int[] heads;
+    private final int[] next;
+    private final int[] previous;
+    private final int[] bucket;
+
+    /**
+     * Creates the tracker and computes the candidates of every empty cell.
+     *
+     * @param board the board to follow.
+     */
+    Candidates(Board board) {
+        this.board = board;
+        this.boardSize = board.getBoardSize();
+        this.size = boardSize.getSize();
+        int cells = boardSize.getCellCount();
+        masks = new int[cells];
+        heads = new int[size + 1];
+        next = new int[cells];
+        previous = new int[cells];
+        bucket = new int[cells];
+        Arrays.fill(heads, -1);
+        Arrays.fill(bucket, -1);
+        for (int cell = 0; cell < cells; cell++) {
+            if (board.get(cell / size, cell % size) == 0) {
+                update(cell, board.candidates(cell / size, cell % size));
+            }
+        }
+    }
+
+    /**
+     * Returns the candidates of a cell.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return a bitmask where bit n is set if n is still a candidate; 0 if the cell is filled.
+     */
+    public int get(int row, int col) {
+        return masks[row * size + col];
+    }
+
+    /**
+     * Returns how many candidates a cell has.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return the number of candidates; 0 if the cell is filled or has no valid number left.
+     */
+    public int count(int row, int col) {
+        return Integer.bitCount(masks[row * size + col]);
+    }
+
+    /**
+     * Removes a candidate from an empty cell.
+     *
+     * @param row   the row index.
+     * @param col   the column index.
+     * @param value the number to remove.
+     * @return true if the number was a candidate of the cell; false otherwise.
+     */
+    public boolean eliminate(int row, int col, int value) {
+        int cell = row * size + col;
+        int bit = 1 << value;
+        if ((masks[cell] & bit) == 0) {
+            return false;
+        }
+        update(cell, masks[cell] & ~bit);
+        return true;
+    }
+
+    /**
+     * Returns an empty cell with the fewest candidates.
+     * A cell with no candidates at all means the board can no longer be completed.
+     *
+     * @return the cell index in row-major order, or -1 if there are no empty cells.
+     */
+    public int cellWithFewestCandidates() {
+        for (int count = 0; count <= size; count++) {
+            if (heads[count] >= 0) {
+                return heads[count];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns every empty cell that has the fewest candidates.
+     *
+     * @return the cell indices in row-major order (not sorted); empty if there are no empty cells.
+     */
+    public int[] cellsWithFewestCandidates() {
+        int first = cellWithFewestCandidates();
+        if (first < 0) {
+            return new int[0];
+        }
+        int n = 0;
+        for (int cell = first; cell >= 0; cell = next[cell]) {
+            n++;
+        }
+        int[] cells = new int[n];
+        n = 0;
+        for (int cell = first; cell >= 0; cell = next[cell]) {
+            cells[n++] = cell;
+        }
+        return cells;
+    }
+
+    /**
+     * Updates the candidates after a cell of the board changed.
+     * Called by the board once its own bitmasks are up to date.
+     *
+     * @param row      the row index.
+     * @param col      the column index.
+     * @param oldValue the number the cell held before (0 if it was empty).
+     * @param newValue the number the cell holds now (0 if it is empty).
+     */
+    void cellChanged(int row, int col, int oldValue, int newValue) {
+        int cell = row * size + col;
+        int[] peers = boardSize.peers(cell);
+
+        if (oldValue != 0) {
+            // The old number may be allowed again in the peers that were only blocked by this cell
+            int bit = 1 << oldValue;
+            for (int peer : peers) {
+                if (bucket[peer] >= 0 && (board.candidates(peer / size, peer % size) & bit) != 0) {
+                    update(peer, masks[peer] | bit);
+                }
+            }
+        }
+
+        if (newValue != 0) {
+            update(cell, 0);
+            int bit = 1 << newValue;
+            for (int peer : peers) {
+                if (bucket[peer] >= 0 && (masks[peer] & bit) != 0) {
+                    update(peer, masks[peer] & ~bit);
+                }
+            }
+        } else {
+            update(cell, board.candidates(row, col));
+        }
+    }
+
+    /**
+     * Stores a new mask for an empty cell and moves it to the matching bucket.
+     * A mask of 0 for a cell that was just filled takes it out of the buckets.
+     */
+    private void update(int cell, int mask) {
+        masks[cell] = mask;
+        int filled = board.get(cell / size, cell % size);
+        int count = filled != 0 ? -1 : Integer.bitCount(mask);
+        if (bucket[cell] == count) {
+            return;
+        }
+        if (bucket[cell] >= 0) {
+            // Unlink from the current bucket
+            if (previous[cell] >= 0) {
+                next[previous[cell]] = next[cell];
+            } else {
+                heads[bucket[cell]] = next[cell];
+            }
+            if (next[cell] >= 0) {
+                previous[next[cell]] = previous[cell];
+            }
+        }
+        bucket[cell] = count;
+        if (count >= 0) {
+            // Push to the front of the new bucket
+            previous[cell] = -1;
+            next[cell] = heads[count];
+            if (heads[count] >= 0) {
+                previous[heads[count]] = cell;
+            }
+            heads[count] = cell;
+        }
+    }
+}
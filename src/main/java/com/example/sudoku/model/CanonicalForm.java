@@ -0,0 +1,305 @@
+package com.example.sudoku.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collector;
+
+/**
+ * Canonical form of a board: the smallest board, reading the cells in row-major order with 0 before
+ * every number, among all the boards it can be turned into without changing the puzzle.
+ *
+ * The transformations are swapping bands (rows of blocks), swapping rows within a band, swapping
+ * stacks (columns of blocks), swapping columns within a stack, transposing when the blocks are
+ * square, and renaming the numbers. Two puzzles are essentially the same exactly when their
+ * canonical forms are equal, so the forms can be used to drop duplicates.
+ *
+ * For each orientation and arrangement of the columns, the rows are chosen one at a time by a
+ * depth-first search. Numbers are renamed in order of first appearance, which is the smallest
+ * renaming for the rows chosen so far, and a branch is dropped as soon as its last row is greater
+ * than the same row of the best board found so far. The column arrangements are all tried only up
+ * to 9x9 boards; on larger boards there are too many of them, and only the numbers are renamed (and
+ * the board transposed), so some equivalent large puzzles keep different forms.
+ */
+public final class CanonicalForm {
+    // Largest number of column arrangements tried one by one
+    private static final int MAX_COLUMN_ORDERS = 2000;
+
+    // Column arrangements of every board size: output column -> input column
+    private static final int[][][] COLUMN_ORDERS = new int[BoardSize.values().length][][];
+
+    static {
+        for (BoardSize boardSize : BoardSize.values()) {
+            COLUMN_ORDERS[boardSize.ordinal()] = columnOrders(boardSize);
+        }
+    }
+
+    private CanonicalForm() {
+    }
+
+    /**
+     * Returns the canonical form of the current numbers of a board.
+     *
+     * @param board the board.
+     * @return the canonical form.
+     */
+    public static BoardSnapshot of(Board board) {
+        return of(BoardSnapshot.of(board));
+    }
+
+    /**
+     * Returns the canonical form of a snapshot.
+     *
+     * @param snapshot the snapshot.
+     * @return the canonical form; applying it twice gives the same snapshot.
+     */
+    public static BoardSnapshot of(BoardSnapshot snapshot) {
+        return new Search(snapshot.getBoardSize()).run(snapshot.toCells());
+    }
+
+    /**
+     * Tells whether the forms of a board size take every transformation into account.
+     *
+     * @param boardSize the geometry of the boards.
+     * @return true up to 9x9, false for larger boards where only the numbers are renamed.
+     */
+    public static boolean isExhaustive(BoardSize boardSize) {
+        return COLUMN_ORDERS[boardSize.ordinal()].length > 1;
+    }
+
+    /**
+     * Returns a collector that keeps the first of every group of essentially equal boards, in encounter order.
+     * The canonical forms are computed by the threads that accumulate, so a parallel stream spreads the work.
+     *
+     * @param boardSize the size of the boards.
+     * @return the collector.
+     */
+    public static Collector<Board, ?, List<Board>> distinct(BoardSize boardSize) {
+        return Collector.of(
+                () -> new Distinct(boardSize),
+                Distinct::add,
+                Distinct::addAll,
+                distinct -> distinct.boards);
+    }
+
+    /**
+     * Boards kept by the collector, with their canonical forms.
+     */
+    private static final class Distinct {
+        final SnapshotSet seen;
+        final List<Board> boards = new ArrayList<>();
+        final List<BoardSnapshot> forms = new ArrayList<>();
+
+        Distinct(BoardSize boardSize) {
+            seen = new SnapshotSet(boardSize, 0);
+        }
+
+        void add(Board board) {
+            add(board, of(board));
+        }
+
+        void add(Board board, BoardSnapshot form) {
+            if (seen.add(form)) {
+                boards.add(board);
+                forms.add(form);
+            }
+        }
+
+        Distinct addAll(Distinct other) {
+            for (int i = 0; i < other.boards.size(); i++) {
+                add(other.boards.get(i), other.forms.get(i));
+            }
+            return this;
+        }
+    }
+
+    /**
+     * Lists the arrangements of the columns that keep the stacks together, or only the identity when
+     * there are more than {@link #MAX_COLUMN_ORDERS} of them.
+     */
+    private static int[][] columnOrders(BoardSize boardSize) {
+        int size = boardSize.getSize();
+        int blockCols = boardSize.getBlockCols();
+        int stacks = size / blockCols;
+        int[][] stackOrders = permutations(stacks);
+        int[][] inStackOrders = permutations(blockCols);
+        long count = stackOrders.length;
+        for (int i = 0; i < stacks; i++) {
+            count *= inStackOrders.length;
+        }
+        if (count > MAX_COLUMN_ORDERS) {
+            int[] identity = new int[size];
+            for (int col = 0; col < size; col++) {
+                identity[col] = col;
+            }
+            return new int[][] {identity};
+        }
+
+        int[][] orders = new int[(int) count][size];
+        int n = 0;
+        for (int[] stackOrder : stackOrders) {
+            // Counts in base inStackOrders.length, one digit per stack
+            int combinations = (int) (count / stackOrders.length);
+            for (int combination = 0; combination < combinations; combination++) {
+                int digits = combination;
+                for (int stack = 0; stack < stacks; stack++) {
+                    int[] inStack = inStackOrders[digits % inStackOrders.length];
+                    digits /= inStackOrders.length;
+                    for (int i = 0; i < blockCols; i++) {
+                        orders[n][stack * blockCols + i] = stackOrder[stack] * blockCols + inStack[i];
+                    }
+                }
+                n++;
+            }
+        }
+        return orders;
+    }
+
+    private static int[][] permutations(int n) {
+        List<int[]> result = new ArrayList<>();
+        permute(new int[n], 0, 0, result);
+        return result.toArray(int[][]::new);
+    }
+
+    private static void permute(int[] prefix, int length, int used, List<int[]> result) {
+        if (length == prefix.length) {
+            result.add(prefix.clone());
+            return;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((used & (1 << i)) == 0) {
+                prefix[length] = i;
+                permute(prefix, length + 1, used | (1 << i), result);
+            }
+        }
+    }
+
+    /**
+     * State of one canonicalization: the best board found so far and the renaming along the current branch.
+     */
+    private static final class Search {
+        private final BoardSize boardSize;
+        private final int size;
+        private final int blockRows;
+        private final int bands;
+        private final boolean exhaustive;
+
+        // The board in the orientation being tried, and the column arrangement being tried
+        private int[] cells;
+        private int[] columns;
+
+        // The best board found so far; only its first bestRows rows are known
+        private final int[] best;
+        private int bestRows;
+
+        // Renaming of the numbers after each row of the current branch, and the last name given
+        private final int[][] names;
+        private final int[] lastNames;
+        private final int[] row;
+
+        Search(BoardSize boardSize) {
+            this.boardSize = boardSize;
+            size = boardSize.getSize();
+            blockRows = boardSize.getBlockRows();
+            bands = size / blockRows;
+            exhaustive = isExhaustive(boardSize);
+            best = new int[size * size];
+            names = new int[size + 1][size + 1];
+            lastNames = new int[size + 1];
+            row = new int[size];
+        }
+
+        BoardSnapshot run(int[] input) {
+            boolean square = boardSize.getBlockRows() == boardSize.getBlockCols();
+            for (int orientation = 0; orientation < (square ? 2 : 1); orientation++) {
+                cells = orientation == 0 ? input : transpose(input);
+                for (int[] order : COLUMN_ORDERS[boardSize.ordinal()]) {
+                    columns = order;
+                    if (exhaustive) {
+                        searchRows(0, 0, 0, 0);
+                    } else {
+                        for (int depth = 0; depth < size && tryRow(depth, depth); depth++) {
+                            // The rows stay in place
+                        }
+                    }
+                }
+            }
+            return BoardSnapshot.of(boardSize, best);
+        }
+
+        private int[] transpose(int[] input) {
+            int[] transposed = new int[input.length];
+            for (int r = 0; r < size; r++) {
+                for (int c = 0; c < size; c++) {
+                    transposed[c * size + r] = input[r * size + c];
+                }
+            }
+            return transposed;
+        }
+
+        /**
+         * Chooses the input row that goes to output row {@code depth}: any row of an unused band at
+         * the start of a band, otherwise an unused row of the current band.
+         */
+        private void searchRows(int depth, int usedBands, int band, int usedRows) {
+            if (depth == size) {
+                return;
+            }
+            if (depth % blockRows == 0) {
+                for (int b = 0; b < bands; b++) {
+                    if ((usedBands & (1 << b)) != 0) {
+                        continue;
+                    }
+                    for (int r = 0; r < blockRows; r++) {
+                        if (tryRow(depth, b * blockRows + r)) {
+                            searchRows(depth + 1, usedBands | (1 << b), b, 1 << r);
+                        }
+                    }
+                }
+            } else {
+                for (int r = 0; r < blockRows; r++) {
+                    if ((usedRows & (1 << r)) == 0 && tryRow(depth, band * blockRows + r)) {
+                        searchRows(depth + 1, usedBands, band, usedRows | (1 << r));
+                    }
+                }
+            }
+        }
+
+        /**
+         * Places an input row at output row {@code depth}, renaming its new numbers.
+         *
+         * @return false if the branch is already greater than the best board.
+         */
+        private boolean tryRow(int depth, int source) {
+            int[] name = names[depth + 1];
+            System.arraycopy(names[depth], 0, name, 0, size + 1);
+            int last = lastNames[depth];
+            int order = depth < bestRows ? 0 : -1;
+            int offset = depth * size;
+            for (int col = 0; col < size; col++) {
+                int value = cells[source * size + columns[col]];
+                if (value != 0) {
+                    if (name[value] == 0) {
+                        name[value] = ++last;
+                    }
+                    value = name[value];
+                }
+                if (order == 0) {
+                    int bestValue = best[offset + col];
+                    if (value > bestValue) {
+                        return false;
+                    }
+                    if (value < bestValue) {
+                        order = -1;
+                    }
+                }
+                row[col] = value;
+            }
+            if (order < 0) {
+                System.arraycopy(row, 0, best, offset, size);
+                bestRows = depth + 1;
+            }
+            lastNames[depth + 1] = last;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.sudoku.model;
+
+/**
+ * Receives the changes made to the cells of a {@link Board}.
+ */
+@FunctionalInterface
+public interface CellListener {
+    /**
+     * Called after a cell of the board changed its number.
+     *
+     * @param row      the row index.
+     * @param col      the column index.
+     * @param oldValue the number the cell held before (0 if it was empty).
+     * @param newValue the number the cell holds now (0 if it is empty).
+     */
+    void cellChanged(int row, int col, int oldValue, int newValue);
+}
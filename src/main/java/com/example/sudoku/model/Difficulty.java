@@ -0,0 +1,33 @@
+package com.example.sudoku.model;
+
+/**
+ * Difficulty levels used to classify puzzles, from the easiest to the hardest.
+ */
+public enum Difficulty {
+    /** Solvable with the simplest techniques. */
+    EASY(2),
+    /** Needs some scanning but no advanced technique. */
+    MEDIUM(3),
+    /** Needs advanced techniques. */
+    HARD(4),
+    /** Needs the hardest techniques or trial and error. */
+    EXPERT(6);
+
+    // Fraction of each block (1 / divisor) kept as clues when a board is generated for this level
+    private final int clueDivisor;
+
+    Difficulty(int clueDivisor) {
+        this.clueDivisor = clueDivisor;
+    }
+
+    /**
+     * Returns how many numbers of each block a generated board keeps for this level.
+     * Fewer clues usually mean a harder puzzle, though only grading the puzzle tells for sure.
+     *
+     * @param boardSize the geometry of the board.
+     * @return the number of clues per block, at least 1.
+     */
+    public int cluesPerBlock(BoardSize boardSize) {
+        return Math.max(1, boardSize.getSize() / clueDivisor);
+    }
+}
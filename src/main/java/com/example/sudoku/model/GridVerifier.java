@@ -0,0 +1,79 @@
+package com.example.sudoku.model;
+
+import java.util.BitSet;
+
+/**
+ * Checks many grids at once for numbers repeated in a row, column or block.
+ *
+ * Grids are packed one after the other in a {@code byte[]}, {@link BoardSize#getCellCount()} bytes
+ * each, in row-major order, with 0 for an empty cell (the layout of {@link PuzzleBank} records once
+ * unpacked). Empty cells never conflict; a byte outside 0..size makes its grid invalid.
+ *
+ * {@link #forSize(BoardSize)} returns a verifier built on the {@code jdk.incubator.vector} API when
+ * the module is present (run with {@code --add-modules jdk.incubator.vector}) and the hardware has
+ * vectors of at least 8 ints, and a scalar one based on bitmasks otherwise. Both give the same answers.
+ *
+ * A verifier reuses its working arrays from one call to the next, so an instance must not be shared
+ * between threads. When grids are checked in parallel, each thread or task needs its own verifier.
+ */
+public interface GridVerifier {
+
+    /**
+     * Returns the fastest verifier available in this JVM.
+     *
+     * @param boardSize the geometry of the grids.
+     * @return a new vectorized verifier if the Vector API is available and the hardware runs it natively,
+     *         a new scalar one otherwise; {@link #isVectorized()} tells which.
+     */
+    static GridVerifier forSize(BoardSize boardSize) {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Loaded by name so that nothing touches the Vector API classes when the module is absent.
+                // The constructor refuses hardware with fewer than 8 int lanes, where the Vector API would
+                // emulate the wider shape in Java, more slowly than the scalar verifier.
+                return (GridVerifier) Class.forName("com.example.sudoku.model.VectorGridVerifier")
+                        .getDeclaredConstructor(BoardSize.class)
+                        .newInstance(boardSize);
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Fall back to the scalar verifier without a message, since this runs for every verifier
+            }
+        }
+        return scalar(boardSize);
+    }
+
+    /**
+     * Returns the scalar verifier, which works in every JVM.
+     *
+     * @param boardSize the geometry of the grids.
+     * @return a new scalar verifier.
+     */
+    static GridVerifier scalar(BoardSize boardSize) {
+        return new ScalarGridVerifier(boardSize);
+    }
+
+    /**
+     * Checks packed grids.
+     *
+     * @param grids   the grids, one after the other.
+     * @param count   the number of grids to check, starting with the first.
+     * @param invalid receives a set bit at the index of every grid that breaks a rule.
+     * @return the number of invalid grids.
+     */
+    int verify(byte[] grids, int count, BitSet invalid);
+
+    /**
+     * Finds the cells that share their number with another cell of the same row, column or block.
+     *
+     * @param grids the grids, one after the other.
+     * @param index the index of the grid to inspect.
+     * @return the conflicting cell indices (row * size + col) in ascending order; empty if the grid is valid.
+     */
+    int[] conflicts(byte[] grids, int index);
+
+    /**
+     * Tells whether this verifier uses the Vector API.
+     *
+     * @return true for the vectorized verifier.
+     */
+    boolean isVectorized();
+}
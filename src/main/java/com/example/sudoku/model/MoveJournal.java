@@ -0,0 +1,305 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * History of the moves made on a board, with constant-time undo and redo.
+ *
+ * The journal listens to its board, so every change is recorded no matter where it comes from:
+ * a number typed by the player, a hint or a cleared cell. Each move is packed into a single int
+ * that holds the cell, the number before and after the move, and its {@link Kind}:
+ * <pre>
+ *   bits  0-9   cell index (row * size + col)
+ *   bits 10-14  number before the move
+ *   bits 15-19  number after the move
+ *   bits 20-22  kind
+ * </pre>
+ * Moves live in a growable int array with a cursor: undoing moves the cursor back and restores the
+ * old number, redoing moves it forward again, and a new move drops the moves that had been undone.
+ * Every record, including undo and redo markers, is also handed to the recorder, so replaying the
+ * records in order rebuilds the same board and history (see {@link SaveFile}).
+ */
+public final class MoveJournal implements CellListener {
+
+    /**
+     * Kind of a record.
+     */
+    public enum Kind {
+        /** A number typed by the player. */
+        PLACE,
+        /** A number placed by the help button. */
+        HINT,
+        /** A cell emptied by the player. */
+        CLEAR,
+        /** Marker for an undone move; it carries no cell. */
+        UNDO,
+        /** Marker for a redone move; it carries no cell. */
+        REDO
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+
+    private final Board board;
+    private final int size;
+    private final boolean[] givens;
+    private int[] moves;
+    private int top;
+    private int cursor;
+    private Kind nextKind;
+    private boolean applying;
+    private IntConsumer recorder = record -> { };
+
+    /**
+     * Starts an empty history for a board; the numbers already on it are taken as the givens of the puzzle.
+     *
+     * @param board the board to follow.
+     */
+    public MoveJournal(Board board) {
+        this(board, givensOf(board), new int[16], 0, 0);
+    }
+
+    /**
+     * Rebuilds a history saved with {@link #getMoves()}.
+     *
+     * @param board  the board as it is after the first {@code cursor} moves.
+     * @param givens which cells hold the givens of the puzzle, in row-major order.
+     * @param moves  the moves, including those that were undone.
+     * @param top    the number of moves in the array.
+     * @param cursor the number of moves that are applied.
+     */
+    MoveJournal(Board board, boolean[] givens, int[] moves, int top, int cursor) {
+        this.board = board;
+        this.size = board.getSize();
+        this.givens = givens;
+        this.moves = moves.length == 0 ? new int[16] : moves;
+        this.top = top;
+        this.cursor = cursor;
+        board.addListener(this);
+    }
+
+    private static boolean[] givensOf(Board board) {
+        int size = board.getSize();
+        boolean[] givens = new boolean[size * size];
+        for (int i = 0; i < givens.length; i++) {
+            givens[i] = board.get(i / size, i % size) != 0;
+        }
+        return givens;
+    }
+
+    /**
+     * Packs a record into an int.
+     *
+     * @param kind     the kind of record.
+     * @param cell     the cell index (row * size + col).
+     * @param oldValue the number before the move.
+     * @param newValue the number after the move.
+     * @return the packed record.
+     */
+    static int encode(Kind kind, int cell, int oldValue, int newValue) {
+        return cell | oldValue << 10 | newValue << 15 | kind.ordinal() << 20;
+    }
+
+    static Kind kind(int record) {
+        int ordinal = record >>> 20 & 7;
+        return ordinal < KINDS.length ? KINDS[ordinal] : null;
+    }
+
+    static int cell(int record) {
+        return record & 0x3FF;
+    }
+
+    static int oldValue(int record) {
+        return record >>> 10 & 0x1F;
+    }
+
+    static int newValue(int record) {
+        return record >>> 15 & 0x1F;
+    }
+
+    /**
+     * Sends every record written from now on to a recorder, such as {@link SaveFile#append(int)}.
+     *
+     * @param recorder the consumer of the packed records.
+     */
+    public void setRecorder(IntConsumer recorder) {
+        this.recorder = Objects.requireNonNull(recorder);
+    }
+
+    /**
+     * Runs an action and records the changes it makes to the board as hints instead of placements.
+     *
+     * @param action the action, usually a help strategy.
+     * @param <T>    the type of the result.
+     * @return the result of the action.
+     */
+    public <T> T hint(Supplier<T> action) {
+        nextKind = Kind.HINT;
+        try {
+            return action.get();
+        } finally {
+            nextKind = null;
+        }
+    }
+
+    /**
+     * Records a change of the board as a new move, dropping the moves that had been undone.
+     */
+    @Override
+    public void cellChanged(int row, int col, int oldValue, int newValue) {
+        if (applying) {
+            return;
+        }
+        Kind kind = nextKind != null ? nextKind : newValue == 0 ? Kind.CLEAR : Kind.PLACE;
+        int record = encode(kind, row * size + col, oldValue, newValue);
+        push(record);
+        recorder.accept(record);
+    }
+
+    private void push(int record) {
+        if (cursor == moves.length) {
+            moves = Arrays.copyOf(moves, moves.length * 2);
+        }
+        moves[cursor++] = record;
+        top = cursor;
+    }
+
+    /**
+     * Reverts the last applied move.
+     *
+     * @return true if a move was undone, false if there was nothing to undo.
+     */
+    public boolean undo() {
+        if (cursor == 0) {
+            return false;
+        }
+        int record = moves[--cursor];
+        apply(cell(record), oldValue(record));
+        recorder.accept(encode(Kind.UNDO, 0, 0, 0));
+        return true;
+    }
+
+    /**
+     * Applies again the last undone move.
+     *
+     * @return true if a move was redone, false if there was nothing to redo.
+     */
+    public boolean redo() {
+        if (cursor == top) {
+            return false;
+        }
+        int record = moves[cursor++];
+        apply(cell(record), newValue(record));
+        recorder.accept(encode(Kind.REDO, 0, 0, 0));
+        return true;
+    }
+
+    private void apply(int cell, int value) {
+        applying = true;
+        try {
+            board.set(cell / size, cell % size, value);
+        } finally {
+            applying = false;
+        }
+    }
+
+    /**
+     * Applies a saved record as if it had just happened, without handing it to the recorder.
+     *
+     * @param record the packed record.
+     * @return true if the record was applied, false if it does not match the board (the rest of the
+     *         records should then be ignored).
+     */
+    boolean replay(int record) {
+        Kind kind = kind(record);
+        if (kind == null) {
+            return false;
+        }
+        switch (kind) {
+            case UNDO -> {
+                if (cursor == 0 || board.get(cell(moves[cursor - 1]) / size, cell(moves[cursor - 1]) % size)
+                        != newValue(moves[cursor - 1])) {
+                    return false;
+                }
+                int undone = moves[--cursor];
+                apply(cell(undone), oldValue(undone));
+            }
+            case REDO -> {
+                if (cursor == top || board.get(cell(moves[cursor]) / size, cell(moves[cursor]) % size)
+                        != oldValue(moves[cursor])) {
+                    return false;
+                }
+                int redone = moves[cursor++];
+                apply(cell(redone), newValue(redone));
+            }
+            default -> {
+                int cell = cell(record);
+                int value = newValue(record);
+                if (cell >= givens.length || givens[cell] || value > size
+                        || board.get(cell / size, cell % size) != oldValue(record)) {
+                    return false;
+                }
+                push(record);
+                apply(cell, value);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Tells whether there is a move to undo.
+     *
+     * @return true if {@link #undo()} would change the board.
+     */
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    /**
+     * Tells whether there is a move to redo.
+     *
+     * @return true if {@link #redo()} would change the board.
+     */
+    public boolean canRedo() {
+        return cursor < top;
+    }
+
+    /**
+     * Tells whether a cell holds one of the numbers the puzzle started with.
+     *
+     * @param row the row index.
+     * @param col the column index.
+     * @return true if the cell is a given.
+     */
+    public boolean isGiven(int row, int col) {
+        return givens[row * size + col];
+    }
+
+    /**
+     * Returns the board followed by this journal.
+     *
+     * @return the board.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    boolean[] getGivens() {
+        return givens;
+    }
+
+    /**
+     * Returns a copy of the recorded moves, including those that were undone.
+     *
+     * @return the packed moves.
+     */
+    int[] getMoves() {
+        return Arrays.copyOf(moves, top);
+    }
+
+    int getCursor() {
+        return cursor;
+    }
+}
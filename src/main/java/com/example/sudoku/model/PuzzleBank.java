@@ -0,0 +1,241 @@
+package com.example.sudoku.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.random.RandomGenerator;
+
+/**
+ * Read-only view over a puzzle bank file, a compact binary collection of pre-generated puzzles.
+ *
+ * The file is memory mapped, so opening it only reads the header, and loading a puzzle reads its
+ * fixed-size record directly from the mapping: there is no parsing and the only allocations are the
+ * arrays of the new {@link Board}. Puzzles are grouped by {@link Difficulty}, so picking a random
+ * puzzle of a given difficulty takes constant time.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   0  int   magic "SUDB"
+ *   4  short format version
+ *   6  byte  board size
+ *   7  byte  block rows
+ *   8  byte  block columns
+ *   9  byte  bits per cell (4 up to 16x16, 8 for 25x25)
+ *  10  short reserved
+ *  12  int   record size in bytes
+ *  16  int   number of difficulty levels
+ *  20  per difficulty level: int first record, int record count
+ *  64  records
+ * </pre>
+ * Each record holds the solution, {@code bitsPerCell} bits per cell in row-major order (high nibble
+ * first), followed by a bitmap with one bit per cell telling which cells are given as clues. A solution
+ * cell is never empty, so a nibble holds the number minus one, and numbers up to 16 fit in it.
+ */
+public final class PuzzleBank {
+    static final int MAGIC = 0x53554442; // "SUDB"
+    static final short VERSION = 2;
+    static final int HEADER_SIZE = 64;
+    static final int INDEX_OFFSET = 20;
+
+    private final MappedByteBuffer buffer;
+    private final BoardSize boardSize;
+    private final int bitsPerCell;
+    private final int recordSize;
+    private final int[] firstRecord;
+    private final int[] recordCount;
+
+    private PuzzleBank(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a puzzle bank file");
+        }
+        if (buffer.getShort(4) != VERSION) {
+            throw new IOException("Unsupported puzzle bank version: " + buffer.getShort(4));
+        }
+        boardSize = BoardSize.of(buffer.get(6));
+        if (boardSize.getBlockRows() != buffer.get(7) || boardSize.getBlockCols() != buffer.get(8)) {
+            throw new IOException("Unsupported block geometry");
+        }
+        bitsPerCell = buffer.get(9);
+        if (bitsPerCell != bitsPerCell(boardSize)) {
+            throw new IOException("Unsupported cell width: " + bitsPerCell);
+        }
+        recordSize = buffer.getInt(12);
+        if (recordSize != recordSize(boardSize)) {
+            throw new IOException("Unexpected record size: " + recordSize);
+        }
+
+        int levels = Difficulty.values().length;
+        if (buffer.getInt(16) != levels) {
+            throw new IOException("Unexpected number of difficulty levels: " + buffer.getInt(16));
+        }
+        firstRecord = new int[levels];
+        recordCount = new int[levels];
+        for (int i = 0; i < levels; i++) {
+            firstRecord[i] = buffer.getInt(INDEX_OFFSET + 8 * i);
+            recordCount[i] = buffer.getInt(INDEX_OFFSET + 8 * i + 4);
+            long end = HEADER_SIZE + ((long) firstRecord[i] + recordCount[i]) * recordSize;
+            if (firstRecord[i] < 0 || recordCount[i] < 0 || end > buffer.capacity()) {
+                throw new IOException("Corrupt puzzle bank index");
+            }
+        }
+    }
+
+    /**
+     * Opens and maps a puzzle bank file.
+     *
+     * @param path the bank file.
+     * @return the opened bank.
+     * @throws IOException if the file cannot be read or is not a valid bank.
+     */
+    public static PuzzleBank open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Puzzle bank too large to map: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            return new PuzzleBank(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Returns the geometry of the puzzles in the bank.
+     *
+     * @return the board size.
+     */
+    public BoardSize getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Returns how many puzzles of a difficulty the bank holds.
+     *
+     * @param difficulty the difficulty level.
+     * @return the number of puzzles.
+     */
+    public int count(Difficulty difficulty) {
+        return recordCount[difficulty.ordinal()];
+    }
+
+    /**
+     * Loads a puzzle.
+     *
+     * @param difficulty the difficulty level.
+     * @param index      the index of the puzzle within that level.
+     * @return a new board with the clues of the puzzle and its solution.
+     * @throws IndexOutOfBoundsException if there is no puzzle at that index.
+     */
+    public Board load(Difficulty difficulty, int index) {
+        int level = difficulty.ordinal();
+        int record = firstRecord[level] + Objects.checkIndex(index, recordCount[level]);
+        return decode(buffer, HEADER_SIZE + record * recordSize, boardSize);
+    }
+
+    /**
+     * Loads a random puzzle of a difficulty.
+     *
+     * @param difficulty the difficulty level.
+     * @param random     the random generator choosing the puzzle.
+     * @return a new board, or null if the bank has no puzzle of that difficulty.
+     */
+    public Board random(Difficulty difficulty, RandomGenerator random) {
+        int count = count(difficulty);
+        return count == 0 ? null : load(difficulty, random.nextInt(count));
+    }
+
+    /**
+     * Returns the number of bits used to store each cell of a board size.
+     *
+     * @param boardSize the geometry of the board.
+     * @return 4 if every number minus one fits in a nibble, otherwise 8.
+     */
+    static int bitsPerCell(BoardSize boardSize) {
+        return boardSize.getSize() <= 16 ? 4 : 8;
+    }
+
+    /**
+     * Returns the size in bytes of one record.
+     *
+     * @param boardSize the geometry of the board.
+     * @return the bytes of the packed solution plus the bytes of the clue bitmap.
+     */
+    static int recordSize(BoardSize boardSize) {
+        int cells = boardSize.getCellCount();
+        return (cells * bitsPerCell(boardSize) + 7) / 8 + (cells + 7) / 8;
+    }
+
+    /**
+     * Packs a board into a record.
+     *
+     * @param board  the board to pack; its solution must be known.
+     * @param target the buffer receiving the record at its current position.
+     */
+    static void encode(Board board, ByteBuffer target) {
+        BoardSize boardSize = board.getBoardSize();
+        int size = boardSize.getSize();
+        int cells = boardSize.getCellCount();
+        boolean nibbles = bitsPerCell(boardSize) == 4;
+
+        int pending = 0;
+        for (int i = 0; i < cells; i++) {
+            int value = board.getSolution(i / size, i % size);
+            if (value == 0) {
+                throw new IllegalArgumentException("The board has no known solution");
+            }
+            if (!nibbles) {
+                target.put((byte) value);
+            } else if ((i & 1) == 0) {
+                pending = (value - 1) << 4;
+            } else {
+                target.put((byte) (pending | (value - 1)));
+            }
+        }
+        if (nibbles && (cells & 1) != 0) {
+            target.put((byte) pending);
+        }
+
+        int bits = 0;
+        for (int i = 0; i < cells; i++) {
+            if (board.get(i / size, i % size) != 0) {
+                bits |= 0x80 >>> (i & 7);
+            }
+            if ((i & 7) == 7 || i == cells - 1) {
+                target.put((byte) bits);
+                bits = 0;
+            }
+        }
+    }
+
+    /**
+     * Unpacks a record into a new board.
+     *
+     * @param source    the buffer holding the record.
+     * @param offset    the absolute position of the record.
+     * @param boardSize the geometry of the board.
+     * @return the decoded board.
+     */
+    static Board decode(ByteBuffer source, int offset, BoardSize boardSize) {
+        int size = boardSize.getSize();
+        int cells = boardSize.getCellCount();
+        boolean nibbles = bitsPerCell(boardSize) == 4;
+        int givens = offset + (nibbles ? (cells + 1) / 2 : cells);
+
+        int[] solution = new int[cells];
+        Board board = Board.empty(boardSize);
+        for (int i = 0; i < cells; i++) {
+            int value = nibbles
+                    ? ((source.get(offset + (i >>> 1)) >>> ((i & 1) == 0 ? 4 : 0)) & 0x0F) + 1
+                    : source.get(offset + i) & 0xFF;
+            solution[i] = value;
+            if ((source.get(givens + (i >>> 3)) & (0x80 >>> (i & 7))) != 0) {
+                board.set(i / size, i % size, value);
+            }
+        }
+        board.setSolution(solution);
+        return board;
+    }
+}
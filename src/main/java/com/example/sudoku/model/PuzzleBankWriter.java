@@ -0,0 +1,107 @@
+package com.example.sudoku.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Builds a {@link PuzzleBank} file.
+ * Puzzles are packed into their records as they are added, grouped by difficulty, and the whole bank
+ * is written at once by {@link #write(Path)}.
+ */
+public final class PuzzleBankWriter {
+    private final BoardSize boardSize;
+    private final int recordSize;
+    private final ByteBuffer[] levels = new ByteBuffer[Difficulty.values().length];
+
+    /**
+     * Creates an empty writer.
+     *
+     * @param boardSize the geometry shared by every puzzle of the bank.
+     */
+    public PuzzleBankWriter(BoardSize boardSize) {
+        this.boardSize = boardSize;
+        this.recordSize = PuzzleBank.recordSize(boardSize);
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = ByteBuffer.allocate(recordSize * 64);
+        }
+    }
+
+    /**
+     * Adds a puzzle to the bank.
+     *
+     * @param difficulty the difficulty level the puzzle is filed under.
+     * @param board      the puzzle; its size must match the bank and its solution must be known.
+     * @throws IllegalArgumentException if the board cannot be stored in this bank.
+     */
+    public void add(Difficulty difficulty, Board board) {
+        if (board.getBoardSize() != boardSize) {
+            throw new IllegalArgumentException("Expected a " + boardSize + " board but got " + board.getBoardSize());
+        }
+        int level = difficulty.ordinal();
+        ByteBuffer buffer = levels[level];
+        if (buffer.remaining() < recordSize) {
+            int capacity = Math.max(buffer.capacity() * 2, buffer.capacity() + recordSize);
+            buffer = ByteBuffer.allocate(capacity).put(buffer.flip());
+            levels[level] = buffer;
+        }
+        int start = buffer.position();
+        try {
+            PuzzleBank.encode(board, buffer);
+        } catch (IllegalArgumentException e) {
+            buffer.position(start);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns how many puzzles have been added for a difficulty.
+     *
+     * @param difficulty the difficulty level.
+     * @return the number of puzzles.
+     */
+    public int count(Difficulty difficulty) {
+        return levels[difficulty.ordinal()].position() / recordSize;
+    }
+
+    /**
+     * Writes the bank, replacing the file if it exists.
+     *
+     * @param path the bank file.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(PuzzleBank.HEADER_SIZE);
+        header.putInt(PuzzleBank.MAGIC)
+                .putShort(PuzzleBank.VERSION)
+                .put((byte) boardSize.getSize())
+                .put((byte) boardSize.getBlockRows())
+                .put((byte) boardSize.getBlockCols())
+                .put((byte) PuzzleBank.bitsPerCell(boardSize))
+                .putShort((short) 0)
+                .putInt(recordSize)
+                .putInt(levels.length);
+        int first = 0;
+        for (Difficulty difficulty : Difficulty.values()) {
+            int count = count(difficulty);
+            header.putInt(first).putInt(count);
+            first += count;
+        }
+        header.position(0);
+
+        ByteBuffer[] buffers = new ByteBuffer[levels.length + 1];
+        buffers[0] = header;
+        for (int i = 0; i < levels.length; i++) {
+            buffers[i + 1] = levels[i].duplicate().flip();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (Arrays.stream(buffers).anyMatch(ByteBuffer::hasRemaining)) {
+                channel.write(buffers);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.sudoku.model;
+
+/**
+ * Plain text format used to store puzzles, one per line.
+ *
+ * A line has three fields separated by a space: the side length of the board, the clues and the
+ * solution. Clues and solution list the cells in row-major order, one character per cell: '.' for an
+ * empty cell, '1'-'9' for the numbers 1 to 9 and 'A'-'P' for the numbers 10 to 25. For example:
+ * {@code 4 1..4............ 1234341221434321}.
+ * A board whose solution is unknown is written with a solution of '.' only, which reads back as no solution.
+ */
+public final class PuzzleFormat {
+
+    private PuzzleFormat() {
+    }
+
+    /**
+     * Writes a board as a line of text (without the line terminator).
+     *
+     * @param board the board to format.
+     * @return the size, clues and solution of the board.
+     */
+    public static String format(Board board) {
+        int size = board.getSize();
+        StringBuilder line = new StringBuilder(4 + 2 * size * size);
+        line.append(size).append(' ');
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                line.append(toChar(board.get(row, col)));
+            }
+        }
+        line.append(' ');
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                line.append(toChar(board.getSolution(row, col)));
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Reads a board from a line of text.
+     * The solution field is optional; without it, or when it is all '.', the board has no known solution.
+     * Otherwise the solution must be complete, follow the rules and agree with every clue, since hints
+     * are taken from it without solving the board again.
+     *
+     * @param line the size, clues and optionally the solution of the board.
+     * @return a new board with the clues (and solution) of the line.
+     * @throws IllegalArgumentException if the line is malformed, its clues break a rule or its solution is not one.
+     */
+    public static Board parse(String line) {
+        String[] fields = line.trim().split("\\s+");
+        if (fields.length < 2 || fields.length > 3) {
+            throw new IllegalArgumentException("Expected size, clues and optional solution");
+        }
+        BoardSize boardSize = BoardSize.of(Integer.parseInt(fields[0]));
+        int[] clues = parseCells(fields[1], boardSize);
+        Board board = Board.empty(boardSize);
+        int size = boardSize.getSize();
+        for (int i = 0; i < clues.length; i++) {
+            int value = clues[i];
+            if (value != 0) {
+                if (!board.isValid(i / size, i % size, value).isValid()) {
+                    throw new IllegalArgumentException("Conflicting clue at cell " + i);
+                }
+                board.set(i / size, i % size, value);
+            }
+        }
+        if (fields.length == 3 && !fields[2].chars().allMatch(ch -> ch == '.')) {
+            int[] solution = parseCells(fields[2], boardSize);
+            checkSolution(boardSize, clues, solution);
+            board.setSolution(solution);
+        }
+        return board;
+    }
+
+    /**
+     * Checks that a solution read from a line is a complete grid that follows the rules and keeps the clues.
+     *
+     * @throws IllegalArgumentException if it is not.
+     */
+    private static void checkSolution(BoardSize boardSize, int[] clues, int[] solution) {
+        Board grid = Board.empty(boardSize);
+        int size = boardSize.getSize();
+        for (int i = 0; i < solution.length; i++) {
+            if (solution[i] == 0) {
+                throw new IllegalArgumentException("Incomplete solution at cell " + i);
+            }
+            if (clues[i] != 0 && clues[i] != solution[i]) {
+                throw new IllegalArgumentException("Solution contradicts the clue at cell " + i);
+            }
+            if (!grid.isValid(i / size, i % size, solution[i]).isValid()) {
+                throw new IllegalArgumentException("Conflicting solution at cell " + i);
+            }
+            grid.set(i / size, i % size, solution[i]);
+        }
+    }
+
+    /**
+     * Reads the cells of a board without checking the Sudoku rules.
+     *
+     * @param cells     one character per cell in row-major order.
+     * @param boardSize the geometry of the board.
+     * @return the number of every cell (0 for empty cells).
+     * @throws IllegalArgumentException if the length or a character is wrong.
+     */
+    public static int[] parseCells(String cells, BoardSize boardSize) {
+        if (cells.length() != boardSize.getCellCount()) {
+            throw new IllegalArgumentException("Expected " + boardSize.getCellCount() + " cells but got " + cells.length());
+        }
+        int[] values = new int[cells.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = toValue(cells.charAt(i));
+            if (values[i] > boardSize.getSize()) {
+                throw new IllegalArgumentException("Number out of range at cell " + i);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Returns the character that represents a number.
+     *
+     * @param value the number (from 0 to 25).
+     * @return '.' for 0, otherwise the digit or letter for the number.
+     */
+    public static char toChar(int value) {
+        return value == 0 ? '.' : Character.toUpperCase(Character.forDigit(value, 36));
+    }
+
+    /**
+     * Returns the number represented by a character.
+     *
+     * @param ch the character to read.
+     * @return the number (0 for '.').
+     * @throws IllegalArgumentException if the character does not represent a number.
+     */
+    public static int toValue(char ch) {
+        if (ch == '.' || ch == '0') {
+            return 0;
+        }
+        int value = Character.digit(ch, 36);
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid cell character: " + ch);
+        }
+        return value;
+    }
+}
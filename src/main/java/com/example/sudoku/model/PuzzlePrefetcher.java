@@ -0,0 +1,223 @@
+package com.example.sudoku.model;
+
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps puzzles generated ahead of time, so that starting a game never waits for the generator.
+ *
+ * There is one bounded queue per size and difficulty, filled by background threads. A queue is only
+ * filled once it has been asked for, either by {@link #prefetch} or by taking a puzzle from it, and
+ * whenever it drops to half of its capacity a refill task is scheduled. At most one refill task runs
+ * per queue and it stops as soon as the queue is full, so generation never gets ahead of the players
+ * by more than the capacity. A request that finds its queue empty gets the first puzzle generated for
+ * it, by its own task or by a refill already running, which serves the waiting requests before the
+ * queue. {@link #close()} cancels the refills and every request still waiting.
+ */
+public final class PuzzlePrefetcher implements AutoCloseable {
+    private final int capacity;
+    private final ExecutorService executor;
+
+    // Puzzles of every size and difficulty, indexed by their ordinals
+    private final Slot[][] slots;
+
+    // Splits are taken under the lock, so every task gets an independent generator
+    private final SplittableRandom seeds = new SplittableRandom();
+
+    /**
+     * Creates a prefetcher with its own background threads; no puzzle is generated until one is asked for.
+     *
+     * @param capacity the number of puzzles kept ready per size and difficulty.
+     * @param threads  the number of background threads generating puzzles.
+     */
+    public PuzzlePrefetcher(int capacity, int threads) {
+        if (capacity <= 0 || threads <= 0) {
+            throw new IllegalArgumentException("Capacity and threads must be positive");
+        }
+        this.capacity = capacity;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "puzzle-prefetch");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        int sizes = BoardSize.values().length;
+        int levels = Difficulty.values().length;
+        slots = new Slot[sizes][levels];
+        for (int i = 0; i < sizes; i++) {
+            for (int j = 0; j < levels; j++) {
+                slots[i][j] = new Slot(capacity);
+            }
+        }
+    }
+
+    /**
+     * Puzzles of one size and difficulty: the ready ones, the requests waiting for one, and whether a refill runs.
+     */
+    private static final class Slot {
+        final BlockingQueue<Board> ready;
+        final Queue<CompletableFuture<Board>> waiting = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean refilling = new AtomicBoolean();
+
+        Slot(int capacity) {
+            ready = new ArrayBlockingQueue<>(capacity);
+        }
+
+        /**
+         * Completes the oldest request still waiting with a new puzzle.
+         *
+         * @return true if a request took the puzzle.
+         */
+        boolean handOver(Board board) {
+            CompletableFuture<Board> request;
+            while ((request = waiting.poll()) != null) {
+                if (request.complete(board)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Starts filling the queue of a size and difficulty in the background.
+     *
+     * @param boardSize  the geometry of the puzzles.
+     * @param difficulty the difficulty level.
+     */
+    public void prefetch(BoardSize boardSize, Difficulty difficulty) {
+        scheduleRefill(boardSize, difficulty);
+    }
+
+    /**
+     * Takes a ready puzzle without waiting.
+     *
+     * @param boardSize  the geometry of the puzzle.
+     * @param difficulty the difficulty level.
+     * @return the puzzle, or null if none is ready yet.
+     */
+    public Board poll(BoardSize boardSize, Difficulty difficulty) {
+        Board board = slot(boardSize, difficulty).ready.poll();
+        refillIfLow(boardSize, difficulty);
+        return board;
+    }
+
+    /**
+     * Takes a puzzle, generating one in the background if none is ready.
+     * The calling thread never generates: the future is already complete when a puzzle was ready.
+     * Cancelling the future before it completes skips the generation if it has not started yet.
+     *
+     * @param boardSize  the geometry of the puzzle.
+     * @param difficulty the difficulty level.
+     * @return the future puzzle.
+     */
+    public CompletableFuture<Board> next(BoardSize boardSize, Difficulty difficulty) {
+        Slot slot = slot(boardSize, difficulty);
+        Board ready = slot.ready.poll();
+        if (ready != null) {
+            refillIfLow(boardSize, difficulty);
+            return CompletableFuture.completedFuture(ready);
+        }
+        CompletableFuture<Board> future = new CompletableFuture<>();
+        slot.waiting.add(future);
+        future.whenComplete((board, error) -> slot.waiting.remove(future));
+        SplittableRandom random = split();
+        try {
+            // A refill already running hands over its next puzzle; otherwise this task runs before the refill
+            executor.execute(() -> {
+                if (!future.isDone()) {
+                    future.complete(new Board(boardSize, difficulty, random));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new CancellationException("Prefetcher closed"));
+        }
+        refillIfLow(boardSize, difficulty);
+        return future;
+    }
+
+    /**
+     * Generates a puzzle on the calling thread, for callers that would rather not wait for the queue.
+     *
+     * @param boardSize  the geometry of the puzzle.
+     * @param difficulty the difficulty level.
+     * @return a new puzzle.
+     */
+    public Board generate(BoardSize boardSize, Difficulty difficulty) {
+        return new Board(boardSize, difficulty, split());
+    }
+
+    /**
+     * Returns the number of puzzles ready for a size and difficulty.
+     *
+     * @param boardSize  the geometry of the puzzles.
+     * @param difficulty the difficulty level.
+     * @return the number of puzzles in the queue.
+     */
+    public int ready(BoardSize boardSize, Difficulty difficulty) {
+        return slot(boardSize, difficulty).ready.size();
+    }
+
+    /**
+     * Stops the background threads and cancels the requests still waiting for a puzzle.
+     * Refills stop after the puzzle they are generating.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        for (Slot[] row : slots) {
+            for (Slot slot : row) {
+                for (CompletableFuture<Board> future : slot.waiting) {
+                    future.cancel(false);
+                }
+            }
+        }
+    }
+
+    private Slot slot(BoardSize boardSize, Difficulty difficulty) {
+        return slots[boardSize.ordinal()][difficulty.ordinal()];
+    }
+
+    private void refillIfLow(BoardSize boardSize, Difficulty difficulty) {
+        if (slot(boardSize, difficulty).ready.size() <= capacity / 2) {
+            scheduleRefill(boardSize, difficulty);
+        }
+    }
+
+    private void scheduleRefill(BoardSize boardSize, Difficulty difficulty) {
+        Slot slot = slot(boardSize, difficulty);
+        if (slot.refilling.compareAndSet(false, true)) {
+            SplittableRandom random = split();
+            try {
+                executor.execute(() -> {
+                    try {
+                        while ((slot.ready.remainingCapacity() > 0 || !slot.waiting.isEmpty())
+                                && !Thread.currentThread().isInterrupted()) {
+                            Board board = new Board(boardSize, difficulty, random);
+                            if (!slot.handOver(board)) {
+                                slot.ready.offer(board);
+                            }
+                        }
+                    } finally {
+                        slot.refilling.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                slot.refilling.set(false);
+            }
+        }
+    }
+
+    private synchronized SplittableRandom split() {
+        return seeds.split();
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.sudoku.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saved game on disk: the latest snapshot of the board plus an append-only journal of the moves made since.
+ *
+ * Appending a move only copies its packed record into a memory buffer, so the caller (the JavaFX
+ * thread) never waits for the disk. A single background thread writes the buffered records to the
+ * journal through a {@link FileChannel} shortly after the first of them arrives, and calls
+ * {@link FileChannel#force(boolean)} once per batch rather than once per move.
+ *
+ * Every {@value #COMPACT_AFTER} records the board and its history are written to a new snapshot and
+ * the journal starts over. Snapshots are written to a temporary file and then moved over the old one,
+ * and both files carry a generation number, so after a crash the journal is replayed only if it
+ * belongs to the snapshot on disk, and only up to its last complete record.
+ *
+ * Snapshot layout (big-endian):
+ * <pre>
+ *   0  int   magic "SUDS"
+ *   4  short format version
+ *   6  byte  board size
+ *   7  byte  reserved
+ *   8  long  generation
+ *  16  int   number of moves
+ *  20  int   number of applied moves
+ *  24  cells, solution and givens, one byte per cell each
+ *      moves, one int each
+ * </pre>
+ * Journal layout: int magic "SUDJ", long generation, then one int per record (see {@link MoveJournal}).
+ */
+public final class SaveFile implements Closeable {
+    static final int SNAPSHOT_MAGIC = 0x53554453; // "SUDS"
+    static final int JOURNAL_MAGIC = 0x5355444A; // "SUDJ"
+    static final short VERSION = 1;
+    static final int SNAPSHOT_HEADER = 24;
+    static final int JOURNAL_HEADER = 12;
+
+    // Number of journal records after which a new snapshot is taken
+    static final int COMPACT_AFTER = 1024;
+
+    // Time the writer waits after a record so that the records that follow share the same force
+    private static final long FLUSH_DELAY_MILLIS = 100;
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final FileChannel journal;
+    private final ScheduledExecutorService writer;
+
+    // Records waiting for the writer; guarded by this
+    private int[] pending = new int[256];
+    private int pendingCount;
+    private boolean flushScheduled;
+
+    private MoveJournal tracked;
+    private int sinceSnapshot;
+    private long generation;
+
+    private SaveFile(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        snapshotPath = directory.resolve("game.snapshot");
+        journalPath = directory.resolve("game.journal");
+        journal = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "save-file");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // New snapshots must never reuse the generation of the files already on disk
+        generation = Math.max(readGeneration(journal, 4), readGeneration(snapshotPath));
+    }
+
+    private static long readGeneration(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readGeneration(channel, 8);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long readGeneration(FileChannel channel, long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        channel.read(buffer, offset);
+        return buffer.hasRemaining() ? 0 : buffer.getLong(0);
+    }
+
+    /**
+     * Opens the saved game stored in a directory, creating the directory if needed.
+     *
+     * @param directory the directory holding the snapshot and journal files.
+     * @return the save file.
+     * @throws IOException if the directory or the journal cannot be opened.
+     */
+    public static SaveFile open(Path directory) throws IOException {
+        return new SaveFile(directory);
+    }
+
+    /**
+     * Restores the saved game: the board of the latest snapshot with the journal replayed on top.
+     *
+     * @return the journal of the restored game, with its board, or null if there is no usable saved game.
+     */
+    public MoveJournal load() {
+        ByteBuffer snapshot;
+        try {
+            snapshot = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+        } catch (IOException e) {
+            return null;
+        }
+        MoveJournal restored;
+        long snapshotGeneration;
+        try {
+            if (snapshot.getInt() != SNAPSHOT_MAGIC || snapshot.getShort() != VERSION) {
+                return null;
+            }
+            BoardSize boardSize = BoardSize.of(snapshot.get());
+            snapshot.get();
+            snapshotGeneration = snapshot.getLong();
+            int top = snapshot.getInt();
+            int cursor = snapshot.getInt();
+            int cellCount = boardSize.getCellCount();
+            byte[] cells = new byte[cellCount];
+            byte[] solution = new byte[cellCount];
+            byte[] givens = new byte[cellCount];
+            snapshot.get(cells).get(solution).get(givens);
+            // Checked before allocating, so a corrupted count cannot ask for gigabytes
+            if (cursor < 0 || cursor > top || (long) top * Integer.BYTES > snapshot.remaining()) {
+                return null;
+            }
+            int[] moves = new int[top];
+            snapshot.asIntBuffer().get(moves);
+
+            int size = boardSize.getSize();
+            Board board = Board.empty(boardSize);
+            int[] known = new int[cellCount];
+            boolean[] given = new boolean[cellCount];
+            for (int i = 0; i < cellCount; i++) {
+                board.set(i / size, i % size, cells[i]);
+                known[i] = solution[i];
+                given[i] = givens[i] != 0;
+            }
+            board.setSolution(known);
+            restored = new MoveJournal(board, given, moves, top, cursor);
+        } catch (RuntimeException e) {
+            // Truncated or corrupted snapshot
+            return null;
+        }
+        try {
+            ByteBuffer records = ByteBuffer.allocate((int) journal.size());
+            journal.read(records, 0);
+            records.flip();
+            if (records.remaining() >= JOURNAL_HEADER && records.getInt() == JOURNAL_MAGIC
+                    && records.getLong() == snapshotGeneration) {
+                // A torn record at the end is left out by the remaining() check
+                while (records.remaining() >= Integer.BYTES && restored.replay(records.getInt())) {
+                    sinceSnapshot++;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Failed to read the journal, resuming from the snapshot: " + e.getMessage());
+        }
+        return restored;
+    }
+
+    /**
+     * Starts saving a game: takes a snapshot now and records every move of its journal from now on.
+     *
+     * @param moveJournal the journal of the game to save.
+     */
+    public void track(MoveJournal moveJournal) {
+        tracked = moveJournal;
+        moveJournal.setRecorder(this::append);
+        snapshot();
+    }
+
+    /**
+     * Queues a record for the journal file; returns immediately.
+     *
+     * @param record the packed record.
+     */
+    public void append(int record) {
+        if (++sinceSnapshot >= COMPACT_AFTER && tracked != null) {
+            // The snapshot already contains this record
+            snapshot();
+            return;
+        }
+        synchronized (this) {
+            if (pendingCount == pending.length) {
+                pending = Arrays.copyOf(pending, pending.length * 2);
+            }
+            pending[pendingCount++] = record;
+            if (!flushScheduled) {
+                flushScheduled = true;
+                writer.schedule(this::flush, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Captures the tracked game and hands it to the writer, which replaces the snapshot and empties the journal.
+     * Records queued before this call are dropped, since the snapshot already contains them.
+     */
+    private void snapshot() {
+        Board board = tracked.getBoard();
+        BoardSize boardSize = board.getBoardSize();
+        int size = boardSize.getSize();
+        int cellCount = boardSize.getCellCount();
+        int[] moves = tracked.getMoves();
+        boolean[] givens = tracked.getGivens();
+
+        ByteBuffer buffer = ByteBuffer.allocate(SNAPSHOT_HEADER + 3 * cellCount + moves.length * Integer.BYTES);
+        buffer.putInt(SNAPSHOT_MAGIC)
+                .putShort(VERSION)
+                .put((byte) size)
+                .put((byte) 0)
+                .putLong(0) // generation, set by the writer
+                .putInt(moves.length)
+                .putInt(tracked.getCursor());
+        for (int i = 0; i < cellCount; i++) {
+            buffer.put((byte) board.get(i / size, i % size));
+        }
+        for (int i = 0; i < cellCount; i++) {
+            buffer.put((byte) board.getSolution(i / size, i % size));
+        }
+        for (int i = 0; i < cellCount; i++) {
+            buffer.put((byte) (givens[i] ? 1 : 0));
+        }
+        for (int move : moves) {
+            buffer.putInt(move);
+        }
+        buffer.flip();
+
+        synchronized (this) {
+            pendingCount = 0;
+            sinceSnapshot = 0;
+        }
+        writer.execute(() -> writeSnapshot(buffer));
+    }
+
+    private void writeSnapshot(ByteBuffer buffer) {
+        long next = generation + 1;
+        buffer.putLong(8, next);
+        Path temporary = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temporary, snapshotPath, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            generation = next;
+
+            ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER).putInt(JOURNAL_MAGIC).putLong(next).flip();
+            journal.truncate(0);
+            journal.write(header, 0);
+            journal.force(false);
+        } catch (IOException e) {
+            System.out.println("Failed to save the game: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the queued records at the end of the journal and forces them to disk; runs on the writer thread.
+     */
+    private void flush() {
+        ByteBuffer buffer;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pendingCount == 0) {
+                return;
+            }
+            buffer = ByteBuffer.allocate(pendingCount * Integer.BYTES);
+            buffer.asIntBuffer().put(pending, 0, pendingCount);
+            pendingCount = 0;
+        }
+        try {
+            long position = journal.size();
+            while (buffer.hasRemaining()) {
+                position += journal.write(buffer, position);
+            }
+            journal.force(false);
+        } catch (IOException e) {
+            System.out.println("Failed to write the journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the queued records, waits for the writer to finish and closes the journal.
+     */
+    @Override
+    public void close() {
+        writer.execute(this::flush);
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.out.println("Failed to close the journal: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.sudoku.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Grid verifier based on the same bitmasks as {@link Board}: one mask per row, column and block,
+ * with bit n set once n has been seen. A number whose bit is already set in one of its three masks
+ * is a repeat, so each cell costs a few loads, an OR and a test.
+ */
+final class ScalarGridVerifier implements GridVerifier {
+    private final int size;
+    private final int cellCount;
+    private final int[][] units;
+
+    // Row, column and block of every cell, computed once
+    private final int[] rowOf;
+    private final int[] colOf;
+    private final int[] blockOf;
+
+    // Masks reused from one grid to the next
+    private final int[] rowMasks;
+    private final int[] colMasks;
+    private final int[] blockMasks;
+
+    ScalarGridVerifier(BoardSize boardSize) {
+        size = boardSize.getSize();
+        cellCount = boardSize.getCellCount();
+        units = boardSize.units();
+        rowOf = new int[cellCount];
+        colOf = new int[cellCount];
+        blockOf = new int[cellCount];
+        for (int cell = 0; cell < cellCount; cell++) {
+            rowOf[cell] = cell / size;
+            colOf[cell] = cell % size;
+            blockOf[cell] = boardSize.blockIndex(cell / size, cell % size);
+        }
+        rowMasks = new int[size];
+        colMasks = new int[size];
+        blockMasks = new int[size];
+    }
+
+    @Override
+    public int verify(byte[] grids, int count, BitSet invalid) {
+        checkLength(grids, count, cellCount);
+        int found = 0;
+        for (int grid = 0; grid < count; grid++) {
+            if (!isValid(grids, grid * cellCount)) {
+                invalid.set(grid);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private boolean isValid(byte[] grids, int offset) {
+        Arrays.fill(rowMasks, 0);
+        Arrays.fill(colMasks, 0);
+        Arrays.fill(blockMasks, 0);
+        for (int cell = 0; cell < cellCount; cell++) {
+            int value = grids[offset + cell];
+            if (value == 0) {
+                continue;
+            }
+            if (value < 0 || value > size) {
+                return false;
+            }
+            int bit = 1 << value;
+            int row = rowOf[cell];
+            int col = colOf[cell];
+            int block = blockOf[cell];
+            if (((rowMasks[row] | colMasks[col] | blockMasks[block]) & bit) != 0) {
+                return false;
+            }
+            rowMasks[row] |= bit;
+            colMasks[col] |= bit;
+            blockMasks[block] |= bit;
+        }
+        return true;
+    }
+
+    @Override
+    public int[] conflicts(byte[] grids, int index) {
+        return conflicts(grids, index, size, units);
+    }
+
+    /**
+     * Finds the conflicting cells of one grid: a first pass over every unit collects the numbers seen
+     * more than once, and a second pass marks the cells holding one of them.
+     */
+    static int[] conflicts(byte[] grids, int index, int size, int[][] units) {
+        int offset = index * size * size;
+        boolean[] conflicting = new boolean[size * size];
+        for (int[] unit : units) {
+            int seen = 0;
+            int repeated = 0;
+            for (int cell : unit) {
+                int value = grids[offset + cell];
+                if (value < 0 || value > size) {
+                    conflicting[cell] = true;
+                } else if (value != 0) {
+                    repeated |= seen & (1 << value);
+                    seen |= 1 << value;
+                }
+            }
+            if (repeated != 0) {
+                for (int cell : unit) {
+                    int value = grids[offset + cell];
+                    if (value > 0 && value <= size && (repeated & (1 << value)) != 0) {
+                        conflicting[cell] = true;
+                    }
+                }
+            }
+        }
+        int count = 0;
+        for (boolean cell : conflicting) {
+            if (cell) {
+                count++;
+            }
+        }
+        int[] cells = new int[count];
+        count = 0;
+        for (int cell = 0; cell < conflicting.length; cell++) {
+            if (conflicting[cell]) {
+                cells[count++] = cell;
+            }
+        }
+        return cells;
+    }
+
+    static void checkLength(byte[] grids, int count, int cellCount) {
+        if (count < 0 || (long) count * cellCount > grids.length) {
+            throw new IllegalArgumentException("Expected " + count + " grids of " + cellCount
+                    + " cells but got " + grids.length + " bytes");
+        }
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return false;
+    }
+}
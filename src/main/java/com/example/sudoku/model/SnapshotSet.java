@@ -0,0 +1,150 @@
+package com.example.sudoku.model;
+
+/**
+ * Set of board snapshots of one size, stored as primitive words rather than as objects.
+ *
+ * The table uses open addressing with linear probing. Slot i keeps the hash of its snapshot in
+ * {@code hashes[i]} (0 marks a free slot) and the packed words in {@code words[i * wordCount ...]},
+ * so a lookup compares hashes first and touches the words only on a match, and a 9x9 snapshot costs
+ * 52 bytes in the set instead of the three objects of a boxed {@code HashSet} entry. The table
+ * doubles when it becomes half full. Not thread-safe.
+ */
+public final class SnapshotSet {
+    private static final int MIN_CAPACITY = 16;
+
+    private final BoardSize boardSize;
+    private final int wordCount;
+    private int[] hashes;
+    private long[] words;
+    private int size;
+
+    /**
+     * Creates an empty set.
+     *
+     * @param boardSize        the size of the boards kept in the set.
+     * @param expectedElements the number of snapshots expected, to avoid growing the table on the way.
+     */
+    public SnapshotSet(BoardSize boardSize, int expectedElements) {
+        this.boardSize = boardSize;
+        this.wordCount = BoardSnapshot.wordCount(boardSize);
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2L * expectedElements) {
+            capacity *= 2;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * Adds a snapshot unless an equal one is already in the set.
+     *
+     * @param snapshot the snapshot to add.
+     * @return true if it was added, false if it was already present.
+     */
+    public boolean add(BoardSnapshot snapshot) {
+        int slot = find(snapshot);
+        if (slot >= 0) {
+            return false;
+        }
+        if (2 * (size + 1) > hashes.length) {
+            grow();
+            slot = find(snapshot);
+        }
+        slot = ~slot;
+        hashes[slot] = hash(snapshot);
+        for (int i = 0; i < wordCount; i++) {
+            words[slot * wordCount + i] = snapshot.word(i);
+        }
+        size++;
+        return true;
+    }
+
+    /**
+     * Tells whether an equal snapshot is in the set.
+     *
+     * @param snapshot the snapshot to look for.
+     * @return true if it is present.
+     */
+    public boolean contains(BoardSnapshot snapshot) {
+        return find(snapshot) >= 0;
+    }
+
+    /**
+     * Returns the number of snapshots in the set.
+     *
+     * @return the size of the set.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the size of the boards kept in the set.
+     *
+     * @return the board size.
+     */
+    public BoardSize getBoardSize() {
+        return boardSize;
+    }
+
+    /**
+     * Looks for a snapshot.
+     *
+     * @return the slot holding it, or the complement of the free slot where it would go.
+     */
+    private int find(BoardSnapshot snapshot) {
+        if (snapshot.getBoardSize() != boardSize) {
+            throw new IllegalArgumentException("Expected a " + boardSize + " board but got " + snapshot.getBoardSize());
+        }
+        int hash = hash(snapshot);
+        int mask = hashes.length - 1;
+        for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+            if (hashes[slot] == 0) {
+                return ~slot;
+            }
+            if (hashes[slot] == hash && sameWords(slot, snapshot)) {
+                return slot;
+            }
+        }
+    }
+
+    private boolean sameWords(int slot, BoardSnapshot snapshot) {
+        for (int i = 0; i < wordCount; i++) {
+            if (words[slot * wordCount + i] != snapshot.word(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(BoardSnapshot snapshot) {
+        int hash = snapshot.hashCode();
+        return hash == 0 ? 1 : hash;
+    }
+
+    private void allocate(int capacity) {
+        if ((long) capacity * wordCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many snapshots for one set: " + capacity / 2);
+        }
+        hashes = new int[capacity];
+        words = new long[capacity * wordCount];
+    }
+
+    private void grow() {
+        int[] oldHashes = hashes;
+        long[] oldWords = words;
+        allocate(hashes.length * 2);
+        int mask = hashes.length - 1;
+        for (int old = 0; old < oldHashes.length; old++) {
+            int hash = oldHashes[old];
+            if (hash == 0) {
+                continue;
+            }
+            int slot = hash & mask;
+            while (hashes[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = hash;
+            System.arraycopy(oldWords, old * wordCount, words, slot * wordCount, wordCount);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.sudoku.model;
+
+import com.example.sudoku.model.solver.Technique;
+
+/**
+ * A move proposed by a help strategy: a number to place in a cell.
+ *
+ * @param row       the row index of the cell.
+ * @param col       the column index of the cell.
+ * @param value     the number to place.
+ * @param technique the technique that justifies the move, or null if the strategy does not report one.
+ */
+public record Suggestion(int row, int col, int value, Technique technique) {
+
+    /**
+     * Creates a suggestion without a technique.
+     *
+     * @param row   the row index of the cell.
+     * @param col   the column index of the cell.
+     * @param value the number to place.
+     */
+    public Suggestion(int row, int col, int value) {
+        this(row, col, value, null);
+    }
+}
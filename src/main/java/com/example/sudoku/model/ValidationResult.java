@@ -0,0 +1,25 @@
+package com.example.sudoku.model;
+
+/**
+ * Result of checking whether a candidate number can be placed in a cell.
+ * Indicates either that the placement is valid or which Sudoku rule it breaks.
+ */
+public enum ValidationResult {
+    /** The candidate does not conflict with any other number. */
+    VALID,
+    /** The candidate already exists in the same row. */
+    ROW,
+    /** The candidate already exists in the same column. */
+    COLUMN,
+    /** The candidate already exists in the same block. */
+    BLOCK;
+
+    /**
+     * Tells whether this result allows the candidate to be placed.
+     *
+     * @return true if this is {@link #VALID}; false otherwise.
+     */
+    public boolean isValid() {
+        return this == VALID;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.sudoku.model;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Grid verifier built on the Vector API, used by {@link GridVerifier#forSize} when the
+ * {@code jdk.incubator.vector} module is present. It must only be loaded by name, so that nothing
+ * links against the incubator classes when the module is absent.
+ *
+ * Each number n becomes the bit {@code 1 << n}, and a unit holds no repeat exactly when the sum of
+ * the bits of its cells equals their OR. A row is read as one or more lanes of columns at once:
+ * the lanes accumulate the sum and OR of every column, and of every column within the current band
+ * of blocks, while the sum and OR of the row itself come from reducing the lanes. Blocks are settled
+ * at the end by adding up the band totals of their columns.
+ */
+final class VectorGridVerifier implements GridVerifier {
+    // Fewest int lanes: cells are loaded into a byte vector with as many lanes, and the smallest has 8
+    private static final int MIN_LANES = 8;
+
+    // The widest shape the hardware runs natively
+    private static final VectorSpecies<Integer> INT = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTE = isSupported()
+            ? VectorSpecies.of(byte.class, VectorShape.forBitSize(INT.length() * Byte.SIZE))
+            : null;
+
+    private final int size;
+    private final int cellCount;
+    private final int blockRows;
+    private final int blockCols;
+    private final int[][] units;
+
+    // Number of lane groups needed to cover a row
+    private final int chunks;
+
+    // Per lane: -1 for a column of the board, 0 past the last one
+    private final IntVector[] columns;
+
+    // Sum and OR of every row, and of every column within every band, reused from one grid to the next
+    private final int[] rowSums;
+    private final int[] rowOrs;
+    private final int[] bandSums;
+    private final int[] bandOrs;
+
+    // Copy of a grid followed by a full lane group, for the grids at the very end of the array
+    private final byte[] padded;
+
+    /**
+     * Creates a verifier.
+     *
+     * @param boardSize the geometry of the grids.
+     * @throws UnsupportedOperationException if the hardware has vectors of fewer than 8 ints.
+     */
+    VectorGridVerifier(BoardSize boardSize) {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Only " + INT.length() + " int lanes");
+        }
+        size = boardSize.getSize();
+        cellCount = boardSize.getCellCount();
+        blockRows = boardSize.getBlockRows();
+        blockCols = boardSize.getBlockCols();
+        units = boardSize.units();
+        int lanes = INT.length();
+        chunks = (size + lanes - 1) / lanes;
+        columns = new IntVector[chunks];
+        int[] valid = new int[lanes];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            for (int lane = 0; lane < lanes; lane++) {
+                valid[lane] = chunk * lanes + lane < size ? -1 : 0;
+            }
+            columns[chunk] = IntVector.fromArray(INT, valid, 0);
+        }
+        rowSums = new int[size];
+        rowOrs = new int[size];
+        bandSums = new int[(size / blockRows) * chunks * lanes];
+        bandOrs = new int[bandSums.length];
+        padded = new byte[cellCount + chunks * lanes];
+    }
+
+    /**
+     * Tells whether the hardware runs vectors of at least 8 ints natively.
+     *
+     * @return true if a verifier can be created.
+     */
+    static boolean isSupported() {
+        return INT.length() >= MIN_LANES;
+    }
+
+    @Override
+    public int verify(byte[] grids, int count, BitSet invalid) {
+        ScalarGridVerifier.checkLength(grids, count, cellCount);
+        // A row is read as whole lane groups, which may run past the end of the last grids
+        int lastDirect = Math.floorDiv(grids.length - cellCount - chunks * INT.length(), cellCount);
+        int found = 0;
+        for (int grid = 0; grid < count; grid++) {
+            boolean valid;
+            if (grid <= lastDirect) {
+                valid = isValid(grids, grid * cellCount);
+            } else {
+                System.arraycopy(grids, grid * cellCount, padded, 0, cellCount);
+                valid = isValid(padded, 0);
+            }
+            if (!valid) {
+                invalid.set(grid);
+                found++;
+            }
+        }
+        return found;
+    }
+
+    private boolean isValid(byte[] cells, int offset) {
+        int lanes = INT.length();
+        IntVector zero = IntVector.zero(INT);
+        IntVector one = IntVector.broadcast(INT, 1);
+        VectorMask<Integer> outOfRange = INT.maskAll(false);
+        Arrays.fill(rowSums, 0);
+        Arrays.fill(rowOrs, 0);
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            IntVector lanesValid = columns[chunk];
+            IntVector columnSum = zero;
+            IntVector columnOr = zero;
+            IntVector bandSum = zero;
+            IntVector bandOr = zero;
+            for (int row = 0; row < size; row++) {
+                ByteVector bytes = ByteVector.fromArray(BYTE, cells, offset + row * size + chunk * lanes);
+                IntVector values = ((IntVector) bytes.convertShape(VectorOperators.B2I, INT, 0)).and(lanesValid);
+                outOfRange = outOfRange.or(values.compare(VectorOperators.UNSIGNED_GT, size));
+                IntVector bits = one.lanewise(VectorOperators.LSHL, values).and(-2);
+
+                columnSum = columnSum.add(bits);
+                columnOr = columnOr.or(bits);
+                bandSum = bandSum.add(bits);
+                bandOr = bandOr.or(bits);
+                rowSums[row] += bits.reduceLanes(VectorOperators.ADD);
+                rowOrs[row] |= bits.reduceLanes(VectorOperators.OR);
+
+                if (row % blockRows == blockRows - 1) {
+                    int band = (row / blockRows) * chunks * lanes + chunk * lanes;
+                    bandSum.intoArray(bandSums, band);
+                    bandOr.intoArray(bandOrs, band);
+                    bandSum = zero;
+                    bandOr = zero;
+                }
+            }
+            if (!columnSum.eq(columnOr).allTrue()) {
+                return false;
+            }
+        }
+        if (outOfRange.anyTrue()) {
+            return false;
+        }
+        for (int row = 0; row < size; row++) {
+            if (rowSums[row] != rowOrs[row]) {
+                return false;
+            }
+        }
+        int stride = chunks * lanes;
+        for (int band = 0; band < size / blockRows; band++) {
+            for (int col = 0; col < size; col += blockCols) {
+                int sum = 0;
+                int or = 0;
+                for (int i = band * stride + col; i < band * stride + col + blockCols; i++) {
+                    sum += bandSums[i];
+                    or |= bandOrs[i];
+                }
+                if (sum != or) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int[] conflicts(byte[] grids, int index) {
+        // Only needed for the few grids found invalid, so the scalar search is fast enough
+        return ScalarGridVerifier.conflicts(grids, index, size, units);
+    }
+
+    @Override
+    public boolean isVectorized() {
+        return true;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSize;
+import com.example.sudoku.model.BoardSnapshot;
+import com.example.sudoku.model.GridVerifier;
+
+/**
+ * Result of checking a whole board after a move.
+ *
+ * @param conflicts the cells (row * size + col) that repeat a number of their row, column or block, in ascending order.
+ * @param complete  whether every cell is filled and no number repeats.
+ * @param solvable  whether no number repeats and the board can still be completed.
+ */
+public record BoardCheck(int[] conflicts, boolean complete, boolean solvable) {
+
+    /**
+     * Checks a snapshot of a board; meant to run off the JavaFX thread, since the solver may be needed.
+     *
+     * @param snapshot the board to check, with its solution if it is known.
+     * @return the result of the check.
+     */
+    public static BoardCheck of(BoardSnapshot snapshot) {
+        BoardSize boardSize = snapshot.getBoardSize();
+        int[] cells = snapshot.toCells();
+        byte[] grid = new byte[cells.length];
+        boolean filled = true;
+        for (int cell = 0; cell < cells.length; cell++) {
+            grid[cell] = (byte) cells[cell];
+            filled &= cells[cell] != 0;
+        }
+        int[] conflicts = GridVerifier.scalar(boardSize).conflicts(grid, 0);
+        if (conflicts.length > 0) {
+            return new BoardCheck(conflicts, false, false);
+        }
+        Board board = snapshot.toBoard();
+        return new BoardCheck(conflicts, filled, filled || Hints.isSolvable(board));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.sudoku.model.solver;
+
+import java.util.Arrays;
+
+/**
+ * Exact cover matrix solved with Knuth's Algorithm X using Dancing Links.
+ *
+ * All the links live in parallel int arrays instead of node objects, so building a matrix costs a
+ * handful of array allocations and the search itself allocates nothing. Node 0 is the root header,
+ * nodes 1..columns are the column headers and the remaining nodes belong to the rows.
+ *
+ * The search always restores the matrix before returning, so it can be run several times on the
+ * same instance.
+ */
+final class DancingLinks {
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    private final int[] rowId;
+    private final int[] columnSize;
+
+    private int nodeCount;
+
+    // Rows chosen on the current search path and the first complete solution found.
+    private final int[] path;
+    private int[] solution;
+    private int solutionLength;
+
+    /**
+     * Creates an empty matrix.
+     *
+     * @param columns  the number of constraints (columns) of the matrix.
+     * @param maxNodes the maximum number of row nodes that will be added.
+     * @param maxDepth the maximum number of rows a solution can contain.
+     */
+    DancingLinks(int columns, int maxNodes, int maxDepth) {
+        int capacity = columns + 1 + maxNodes;
+        left = new int[capacity];
+        right = new int[capacity];
+        up = new int[capacity];
+        down = new int[capacity];
+        column = new int[capacity];
+        rowId = new int[capacity];
+        columnSize = new int[columns + 1];
+        path = new int[maxDepth];
+
+        for (int i = 0; i <= columns; i++) {
+            left[i] = i - 1;
+            right[i] = i + 1;
+            up[i] = i;
+            down[i] = i;
+            column[i] = i;
+        }
+        left[0] = columns;
+        right[columns] = 0;
+        nodeCount = columns + 1;
+    }
+
+    /**
+     * Appends a row to the matrix.
+     *
+     * @param id      the identifier reported back for this row when it is part of a solution.
+     * @param columns the columns (from 1 to the number of columns) covered by the row.
+     * @param count   how many entries of {@code columns} to use.
+     */
+    void addRow(int id, int[] columns, int count) {
+        int first = nodeCount;
+        for (int i = 0; i < count; i++) {
+            int c = columns[i];
+            int node = nodeCount++;
+            column[node] = c;
+            rowId[node] = id;
+
+            // Insert at the bottom of the column
+            up[node] = up[c];
+            down[node] = c;
+            down[up[c]] = node;
+            up[c] = node;
+            columnSize[c]++;
+
+            // Link into the row
+            if (node == first) {
+                left[node] = node;
+                right[node] = node;
+            } else {
+                left[node] = node - 1;
+                right[node] = first;
+                right[node - 1] = node;
+                left[first] = node;
+            }
+        }
+    }
+
+    /**
+     * Counts the exact covers of the matrix, stopping as soon as {@code limit} of them are found.
+     * The rows of the first solution can be read afterwards with {@link #solution()}.
+     *
+     * @param limit the maximum number of solutions to count (at least 1).
+     * @return the number of solutions found, never greater than {@code limit}.
+     */
+    int search(int limit) {
+        solution = null;
+        solutionLength = 0;
+        return search(0, limit);
+    }
+
+    /**
+     * Returns the row identifiers of the first solution found by the last search.
+     *
+     * @return the chosen row identifiers, or null if there was no solution.
+     */
+    int[] solution() {
+        return solution == null ? null : Arrays.copyOf(solution, solutionLength);
+    }
+
+    private int search(int depth, int limit) {
+        if (right[0] == 0) {
+            if (solution == null) {
+                solution = Arrays.copyOf(path, depth);
+                solutionLength = depth;
+            }
+            return 1;
+        }
+
+        // Choose the column with the fewest rows (MRV heuristic)
+        int chosen = right[0];
+        int best = columnSize[chosen];
+        for (int c = right[chosen]; c != 0 && best > 1; c = right[c]) {
+            if (columnSize[c] < best) {
+                best = columnSize[c];
+                chosen = c;
+            }
+        }
+        if (best == 0) {
+            return 0;
+        }
+
+        int found = 0;
+        cover(chosen);
+        for (int r = down[chosen]; r != chosen && found < limit; r = down[r]) {
+            path[depth] = rowId[r];
+            for (int j = right[r]; j != r; j = right[j]) {
+                cover(column[j]);
+            }
+            found += search(depth + 1, limit - found);
+            for (int j = left[r]; j != r; j = left[j]) {
+                uncover(column[j]);
+            }
+        }
+        uncover(chosen);
+        return found;
+    }
+
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                up[down[j]] = up[j];
+                down[up[j]] = down[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                up[down[j]] = j;
+                down[up[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+}
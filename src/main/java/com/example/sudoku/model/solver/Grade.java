@@ -0,0 +1,27 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.Difficulty;
+
+/**
+ * Difficulty of a puzzle as measured by {@link Grader}.
+ *
+ * @param score   the sum of the weights of the technique needed for each placement.
+ * @param hardest the hardest technique needed; {@link Technique#SOLUTION} if the techniques alone cannot solve it.
+ * @param steps   the number of placements made to solve the puzzle.
+ */
+public record Grade(int score, Technique hardest, int steps) {
+
+    /**
+     * Returns the difficulty level of the puzzle, decided by the hardest technique it needs.
+     *
+     * @return the level to file the puzzle under.
+     */
+    public Difficulty difficulty() {
+        return switch (hardest) {
+            case NAKED_SINGLE -> Difficulty.EASY;
+            case HIDDEN_SINGLE -> Difficulty.MEDIUM;
+            case LOCKED_CANDIDATES, NAKED_PAIR, HIDDEN_PAIR -> Difficulty.HARD;
+            case SOLUTION -> Difficulty.EXPERT;
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.Suggestion;
+
+/**
+ * Measures how hard a puzzle is for a person by solving it the way a person would.
+ *
+ * The grader replays the {@link LogicSolver} technique ladder until the board is full: every
+ * placement uses the easiest technique that finds one, and adds the weight of that technique to the
+ * score. When no technique applies, one number is read from a solution of the board, with the weight
+ * of {@link Technique#SOLUTION}, and the techniques take over again. The board itself is not changed.
+ */
+public final class Grader {
+
+    private Grader() {
+    }
+
+    /**
+     * Grades a puzzle from the current state of its board.
+     *
+     * @param board the puzzle to grade.
+     * @return the grade, or null if the board cannot be completed.
+     */
+    public static Grade grade(Board board) {
+        LogicSolver solver = new LogicSolver(board);
+        int size = board.getSize();
+        int[] solution = null;
+        int score = 0;
+        int steps = 0;
+        Technique hardest = Technique.NAKED_SINGLE;
+        while (!solver.isSolved()) {
+            Suggestion step = solver.next();
+            if (step == null) {
+                // Stuck (or contradictory): take the most constrained cell from a solution
+                if (solution == null) {
+                    solution = solution(board);
+                    if (solution == null) {
+                        return null;
+                    }
+                }
+                int cell = solver.mostConstrainedCell();
+                step = new Suggestion(cell / size, cell % size, solution[cell], Technique.SOLUTION);
+            }
+            solver.place(step.row(), step.col(), step.value());
+            score += step.technique().getWeight();
+            steps++;
+            if (step.technique().compareTo(hardest) > 0) {
+                hardest = step.technique();
+            }
+        }
+        return new Grade(score, hardest, steps);
+    }
+
+    /**
+     * Returns a complete solution of the board, the known one when the board still agrees with it.
+     *
+     * @param board the board to solve.
+     * @return the solution in row-major order, or null if there is none.
+     */
+    private static int[] solution(Board board) {
+        if (Hints.matchesKnownSolution(board)) {
+            int size = board.getSize();
+            int[] known = new int[size * size];
+            for (int cell = 0; cell < known.length; cell++) {
+                known[cell] = board.getSolution(cell / size, cell % size);
+            }
+            return known;
+        }
+        return new SudokuSolver(board).solve();
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.Candidates;
+import com.example.sudoku.model.Suggestion;
+
+/**
+ * Hint searches shared by the help strategies of the game and by the puzzle service.
+ * They only read the board (apart from creating its {@link Candidates} on first use) and know
+ * nothing about the UI.
+ */
+public final class Hints {
+
+    private Hints() {
+    }
+
+    /**
+     * Picks the smallest candidate of the empty cell with the fewest candidates.
+     * The candidates are kept up to date by the board, so no cell has to be scanned.
+     *
+     * @param board the board to look at.
+     * @return the suggested move, or null if the board is full or some empty cell no longer accepts any number.
+     */
+    public static Suggestion fewestCandidates(Board board) {
+        Candidates candidates = board.getCandidates();
+        int cell = candidates.cellWithFewestCandidates();
+        if (cell < 0) {
+            return null;
+        }
+        int row = cell / board.getSize();
+        int col = cell % board.getSize();
+        int mask = candidates.get(row, col);
+        if (mask == 0) {
+            return null;
+        }
+        return new Suggestion(row, col, Integer.numberOfTrailingZeros(mask));
+    }
+
+    /**
+     * Finds the easiest correct move, together with the technique that justifies it.
+     * The {@link LogicSolver} techniques are tried first, and only when none applies is the number read
+     * from a solution of the board. Returns null when the numbers on the board already rule out every
+     * solution, since then no move is correct.
+     *
+     * @param board the board to look at.
+     * @return the suggested move, or null if the board is full or cannot be completed.
+     */
+    public static Suggestion logical(Board board) {
+        if (!isSolvable(board)) {
+            return null;
+        }
+        Suggestion step = new LogicSolver(board).next();
+        if (step != null) {
+            return step;
+        }
+        return fromSolution(board);
+    }
+
+    /**
+     * Tells whether the board can still be completed.
+     * Matching the known solution is enough; otherwise the solver has to look for another one.
+     *
+     * @param board the board to check.
+     * @return true if at least one solution exists.
+     */
+    public static boolean isSolvable(Board board) {
+        return matchesKnownSolution(board) || new SudokuSolver(board).countSolutions(1) > 0;
+    }
+
+    /**
+     * Last resort: takes the number of the most constrained empty cell from a solution of the board.
+     *
+     * @param board the board to look at.
+     * @return the move, or null if the board is full or has no solution.
+     */
+    private static Suggestion fromSolution(Board board) {
+        int cell = board.getCandidates().cellWithFewestCandidates();
+        if (cell < 0) {
+            return null;
+        }
+        int size = board.getSize();
+        int row = cell / size;
+        int col = cell % size;
+        if (matchesKnownSolution(board)) {
+            return new Suggestion(row, col, board.getSolution(row, col), Technique.SOLUTION);
+        }
+        int[] solved = new SudokuSolver(board).solve();
+        return solved == null ? null : new Suggestion(row, col, solved[cell], Technique.SOLUTION);
+    }
+
+    /**
+     * Tells whether every filled cell agrees with the solution the board was generated from.
+     *
+     * @param board the board to check.
+     * @return true if the solution is known and agrees with the board.
+     */
+    static boolean matchesKnownSolution(Board board) {
+        int size = board.getSize();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int value = board.get(row, col);
+                int expected = board.getSolution(row, col);
+                if (expected == 0 || (value != 0 && value != expected)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,312 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSize;
+import com.example.sudoku.model.Candidates;
+import com.example.sudoku.model.Suggestion;
+
+import java.util.Arrays;
+
+/**
+ * Human-style solver that finds placements by applying solving techniques in order of difficulty.
+ *
+ * The solver works on its own copy of the values and candidates of a board, so it never changes the
+ * board. Each call to {@link #next()} tries the placing techniques (naked and hidden singles) first;
+ * when none applies it runs the eliminating techniques (locked candidates, naked and hidden pairs) one
+ * at a time, going back to the singles after every successful elimination. The move is reported with
+ * the hardest technique that was needed to reach it.
+ *
+ * Every deduction is sound: if the board can still be completed, every move found is part of every
+ * completion.
+ */
+public final class LogicSolver {
+    private final BoardSize boardSize;
+    private final int size;
+    private final int[][] units;
+    private final int[] values;
+    private final int[] masks;
+
+    /**
+     * Creates a solver starting from the current state of a board, including any candidate
+     * eliminated by hand in its {@link Candidates}.
+     *
+     * @param board the board to solve.
+     */
+    public LogicSolver(Board board) {
+        boardSize = board.getBoardSize();
+        size = boardSize.getSize();
+        units = boardSize.units();
+        values = new int[boardSize.getCellCount()];
+        masks = new int[values.length];
+        Candidates candidates = board.getCandidates();
+        for (int cell = 0; cell < values.length; cell++) {
+            values[cell] = board.get(cell / size, cell % size);
+            masks[cell] = candidates.get(cell / size, cell % size);
+        }
+    }
+
+    /**
+     * Finds the next placement without applying it.
+     * Eliminations found along the way are kept, so calling this method again is cheaper.
+     *
+     * @return the move and the hardest technique needed to find it, or null if the board is solved,
+     *         contradictory, or beyond the techniques known by this solver.
+     */
+    public Suggestion next() {
+        Technique hardest = Technique.NAKED_SINGLE;
+        while (true) {
+            // Naked singles, checking for cells with no candidates left at the same time
+            for (int cell = 0; cell < values.length; cell++) {
+                if (values[cell] == 0) {
+                    int mask = masks[cell];
+                    if (mask == 0) {
+                        return null;
+                    }
+                    if ((mask & (mask - 1)) == 0) {
+                        return suggestion(cell, Integer.numberOfTrailingZeros(mask), hardest);
+                    }
+                }
+            }
+
+            Suggestion hidden = hiddenSingle(max(hardest, Technique.HIDDEN_SINGLE));
+            if (hidden != null) {
+                return hidden;
+            }
+
+            if (lockedCandidates()) {
+                hardest = max(hardest, Technique.LOCKED_CANDIDATES);
+            } else if (nakedPairs()) {
+                hardest = max(hardest, Technique.NAKED_PAIR);
+            } else if (hiddenPairs()) {
+                hardest = max(hardest, Technique.HIDDEN_PAIR);
+            } else {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Places a number and removes it from the candidates of the peers.
+     *
+     * @param row   the row index.
+     * @param col   the column index.
+     * @param value the number to place.
+     */
+    public void place(int row, int col, int value) {
+        int cell = row * size + col;
+        values[cell] = value;
+        masks[cell] = 0;
+        int clear = ~(1 << value);
+        for (int peer : boardSize.peers(cell)) {
+            masks[peer] &= clear;
+        }
+    }
+
+    /**
+     * Returns the empty cell with the fewest candidates left.
+     *
+     * @return the cell index (row * size + col), or -1 if the board is full.
+     */
+    int mostConstrainedCell() {
+        int best = -1;
+        int fewest = Integer.MAX_VALUE;
+        for (int cell = 0; cell < values.length; cell++) {
+            if (values[cell] == 0 && Integer.bitCount(masks[cell]) < fewest) {
+                best = cell;
+                fewest = Integer.bitCount(masks[cell]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Tells whether every cell has a number.
+     *
+     * @return true if the board is complete.
+     */
+    public boolean isSolved() {
+        for (int value : values) {
+            if (value == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Looks for a number that fits in only one cell of some unit.
+     */
+    private Suggestion hiddenSingle(Technique technique) {
+        for (int[] unit : units) {
+            int once = 0;
+            int twice = 0;
+            for (int cell : unit) {
+                twice |= once & masks[cell];
+                once |= masks[cell];
+            }
+            int single = once & ~twice;
+            if (single != 0) {
+                int bit = Integer.lowestOneBit(single);
+                for (int cell : unit) {
+                    if ((masks[cell] & bit) != 0) {
+                        return suggestion(cell, Integer.numberOfTrailingZeros(bit), technique);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Pointing: the candidates of a number in a block all lie in one row or column, so the number
+     * can be removed from the rest of that line. Claiming: the candidates of a number in a row or
+     * column all lie in one block, so it can be removed from the rest of that block.
+     *
+     * @return true if at least one candidate was removed.
+     */
+    private boolean lockedCandidates() {
+        for (int unit = 0; unit < units.length; unit++) {
+            boolean block = unit >= 2 * size;
+            int[] cells = units[unit];
+            int digits = 0;
+            for (int cell : cells) {
+                digits |= masks[cell];
+            }
+            for (; digits != 0; digits &= digits - 1) {
+                int bit = Integer.lowestOneBit(digits);
+                int rows = 0;
+                int cols = 0;
+                int blocks = 0;
+                for (int cell : cells) {
+                    if ((masks[cell] & bit) != 0) {
+                        rows |= 1 << (cell / size);
+                        cols |= 1 << (cell % size);
+                        blocks |= 1 << boardSize.blockIndex(cell / size, cell % size);
+                    }
+                }
+                boolean changed;
+                if (block) {
+                    changed = Integer.bitCount(rows) == 1
+                            && eliminate(units[Integer.numberOfTrailingZeros(rows)], bit, cells);
+                    changed |= Integer.bitCount(cols) == 1
+                            && eliminate(units[size + Integer.numberOfTrailingZeros(cols)], bit, cells);
+                } else {
+                    changed = Integer.bitCount(blocks) == 1
+                            && eliminate(units[2 * size + Integer.numberOfTrailingZeros(blocks)], bit, cells);
+                }
+                if (changed) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Two cells of a unit with the same two candidates take those two numbers, so the numbers can be
+     * removed from the other cells of the unit.
+     *
+     * @return true if at least one candidate was removed.
+     */
+    private boolean nakedPairs() {
+        for (int[] unit : units) {
+            for (int i = 0; i < unit.length; i++) {
+                int mask = masks[unit[i]];
+                if (Integer.bitCount(mask) != 2) {
+                    continue;
+                }
+                for (int j = i + 1; j < unit.length; j++) {
+                    if (masks[unit[j]] == mask) {
+                        boolean changed = false;
+                        for (int cell : unit) {
+                            if (cell != unit[i] && cell != unit[j] && (masks[cell] & mask) != 0) {
+                                masks[cell] &= ~mask;
+                                changed = true;
+                            }
+                        }
+                        if (changed) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Two numbers that fit in exactly the same two cells of a unit must go in those cells, so every
+     * other candidate can be removed from them.
+     *
+     * @return true if at least one candidate was removed.
+     */
+    private boolean hiddenPairs() {
+        int[] positions = new int[size + 1];
+        for (int[] unit : units) {
+            Arrays.fill(positions, 0);
+            for (int i = 0; i < unit.length; i++) {
+                for (int digits = masks[unit[i]]; digits != 0; digits &= digits - 1) {
+                    positions[Integer.numberOfTrailingZeros(digits)] |= 1 << i;
+                }
+            }
+            for (int a = 1; a <= size; a++) {
+                if (Integer.bitCount(positions[a]) != 2) {
+                    continue;
+                }
+                for (int b = a + 1; b <= size; b++) {
+                    if (positions[b] == positions[a]) {
+                        int pair = (1 << a) | (1 << b);
+                        boolean changed = false;
+                        for (int where = positions[a]; where != 0; where &= where - 1) {
+                            int cell = unit[Integer.numberOfTrailingZeros(where)];
+                            if ((masks[cell] & ~pair) != 0) {
+                                masks[cell] &= pair;
+                                changed = true;
+                            }
+                        }
+                        if (changed) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a candidate from every cell of a unit except the given ones.
+     *
+     * @param unit   the cells to clean.
+     * @param bit    the candidate bit to remove.
+     * @param except the cells to leave untouched.
+     * @return true if at least one candidate was removed.
+     */
+    private boolean eliminate(int[] unit, int bit, int[] except) {
+        boolean changed = false;
+        for (int cell : unit) {
+            if ((masks[cell] & bit) != 0 && !contains(except, cell)) {
+                masks[cell] &= ~bit;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+        for (int c : cells) {
+            if (c == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Suggestion suggestion(int cell, int value, Technique technique) {
+        return new Suggestion(cell / size, cell % size, value, technique);
+    }
+
+    private static Technique max(Technique a, Technique b) {
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
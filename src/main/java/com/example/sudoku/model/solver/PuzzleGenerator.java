@@ -0,0 +1,110 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.metrics.Metrics;
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSize;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Generates puzzles with exactly one solution by taking clues away from a complete grid.
+ *
+ * The cells are visited once in random order. Each cell, together with its images under the chosen
+ * {@link Symmetry}, is emptied and kept empty only if the puzzle still has a single solution; the
+ * generation stops as soon as the target number of clues is reached. With a target of 0 every cell
+ * is tried, and the result is minimal: putting back any clue orbit is necessary for uniqueness.
+ *
+ * Uniqueness after a removal is checked without counting solutions. The puzzle was unique before,
+ * so any other solution must put a different number in one of the cells just emptied; for each of
+ * them a {@link SudokuSolver} without the original number of that cell looks for one solution and
+ * stops at the first it finds. Most removals are settled after a short search.
+ *
+ * A minimal puzzle takes a few milliseconds up to 12x12. From 16x16 up the searches grow long: a
+ * minimal 16x16 puzzle takes about half a second on average and sometimes several seconds. A target
+ * a little above the minimum (around 130 clues for 16x16) keeps those sizes in tens of milliseconds.
+ */
+public final class PuzzleGenerator {
+    private final BoardSize boardSize;
+    private final Symmetry symmetry;
+    private final int targetClues;
+
+    /**
+     * Creates a generator.
+     *
+     * @param boardSize   the geometry of the puzzles.
+     * @param symmetry    the symmetry of the clue pattern.
+     * @param targetClues the number of clues to stop at, or 0 to remove as many as possible.
+     */
+    public PuzzleGenerator(BoardSize boardSize, Symmetry symmetry, int targetClues) {
+        if (targetClues < 0 || targetClues > boardSize.getCellCount()) {
+            throw new IllegalArgumentException("Target clues out of range: " + targetClues);
+        }
+        this.boardSize = boardSize;
+        this.symmetry = symmetry;
+        this.targetClues = targetClues;
+    }
+
+    /**
+     * Generates a puzzle.
+     * The result may keep more clues than the target when no further orbit can be removed without
+     * losing uniqueness (or without going below the target).
+     *
+     * @param random the random generator driving the grid and the order of removal.
+     * @return a new board with a unique solution, which is also its known solution.
+     */
+    public Board generate(RandomGenerator random) {
+        long start = System.nanoTime();
+        Board board = Board.solved(boardSize, random);
+        int size = boardSize.getSize();
+        int cellCount = boardSize.getCellCount();
+
+        int[] order = new int[cellCount];
+        for (int i = 0; i < cellCount; i++) {
+            int j = random.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+
+        boolean[] visited = new boolean[cellCount];
+        int[] orbit = new int[4];
+        int[] values = new int[4];
+        int clues = cellCount;
+        int checks = 0;
+        for (int cell : order) {
+            if (clues <= targetClues) {
+                break;
+            }
+            if (visited[cell]) {
+                continue;
+            }
+            int count = symmetry.orbit(size, cell / size, cell % size, orbit);
+            for (int i = 0; i < count; i++) {
+                visited[orbit[i]] = true;
+            }
+            if (clues - count < targetClues) {
+                continue;
+            }
+
+            for (int i = 0; i < count; i++) {
+                values[i] = board.get(orbit[i] / size, orbit[i] % size);
+                board.clear(orbit[i] / size, orbit[i] % size);
+            }
+            boolean unique = true;
+            for (int i = 0; i < count && unique; i++) {
+                checks++;
+                unique = new SudokuSolver(board, orbit[i], values[i]).countSolutions(1) == 0;
+            }
+            if (unique) {
+                clues -= count;
+            } else {
+                for (int i = 0; i < count; i++) {
+                    board.set(orbit[i] / size, orbit[i] % size, values[i]);
+                }
+            }
+        }
+
+        Metrics.counter("puzzle.uniquenessChecks").add(checks);
+        Metrics.timer("puzzle.generate." + size + "x" + size).record(System.nanoTime() - start);
+        return board;
+    }
+}
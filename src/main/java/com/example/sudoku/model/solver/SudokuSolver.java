@@ -0,0 +1,169 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.Board;
+
+/**
+ * Exact cover solver for the current state of a {@link Board}.
+ *
+ * The Sudoku rules are encoded as four families of constraints (every cell holds a number and every
+ * number appears once per row, column and block). Constraints already satisfied by the filled cells
+ * are left out of the matrix, and only the candidates allowed by the filled cells become rows, so
+ * the matrix handed to {@link DancingLinks} is as small as the position allows.
+ *
+ * The board is read when the solver is created; later changes to the board are not seen.
+ */
+public class SudokuSolver {
+    private final int size;
+    private final int blockRows;
+    private final int blockCols;
+    private final int[] cells;
+
+    // True when two filled cells already break a rule, so there can be no solution.
+    private final boolean contradictory;
+    private final DancingLinks links;
+
+    /**
+     * Builds the exact cover matrix for the given board.
+     *
+     * @param board the board whose filled cells are taken as fixed.
+     */
+    public SudokuSolver(Board board) {
+        this(board, -1, 0);
+    }
+
+    /**
+     * Builds the exact cover matrix for the given board, leaving out one number of one empty cell.
+     * The solutions found are then exactly those that put another number in that cell, which is how
+     * {@link PuzzleGenerator} checks that removing a clue keeps the solution unique.
+     *
+     * @param board         the board whose filled cells are taken as fixed.
+     * @param excludedCell  the index (row * size + col) of the cell, or -1 to exclude nothing.
+     * @param excludedValue the number that cell may not take.
+     */
+    SudokuSolver(Board board, int excludedCell, int excludedValue) {
+        size = board.getSize();
+        blockRows = board.getBlockRows();
+        blockCols = board.getBlockCols();
+        cells = new int[size * size];
+
+        int constraints = 4 * size * size;
+        boolean[] satisfied = new boolean[constraints];
+        int[] placement = new int[4];
+        boolean conflict = false;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int value = board.get(row, col);
+                cells[row * size + col] = value;
+                if (value != 0) {
+                    constraints(row, col, value, placement);
+                    for (int constraint : placement) {
+                        conflict |= satisfied[constraint];
+                        satisfied[constraint] = true;
+                    }
+                }
+            }
+        }
+        contradictory = conflict;
+
+        // Give the open constraints consecutive column numbers starting at 1
+        int[] columnOf = new int[constraints];
+        int columns = 0;
+        for (int i = 0; i < constraints; i++) {
+            if (!satisfied[i]) {
+                columnOf[i] = ++columns;
+            }
+        }
+
+        int empty = 0;
+        for (int value : cells) {
+            if (value == 0) {
+                empty++;
+            }
+        }
+
+        links = new DancingLinks(columns, conflict ? 0 : 4 * empty * size, empty);
+        if (conflict) {
+            return;
+        }
+
+        int[] row = new int[4];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                if (cells[r * size + c] != 0) {
+                    continue;
+                }
+                for (int value = 1; value <= size; value++) {
+                    if (r * size + c == excludedCell && value == excludedValue) {
+                        continue;
+                    }
+                    constraints(r, c, value, placement);
+                    boolean open = true;
+                    for (int k = 0; k < 4 && open; k++) {
+                        open = !satisfied[placement[k]];
+                        row[k] = columnOf[placement[k]];
+                    }
+                    if (open) {
+                        links.addRow((r * size + c) * size + (value - 1), row, 4);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Solves the board.
+     *
+     * @return the solved cells in row-major order, or null if the board has no solution.
+     */
+    public int[] solve() {
+        if (contradictory || links.search(1) == 0) {
+            return null;
+        }
+        int[] solved = cells.clone();
+        for (int id : links.solution()) {
+            solved[id / size] = id % size + 1;
+        }
+        return solved;
+    }
+
+    /**
+     * Counts the solutions of the board, stopping early once {@code limit} is reached.
+     *
+     * @param limit the maximum number of solutions to count (at least 1).
+     * @return the number of solutions, never greater than {@code limit}.
+     */
+    public int countSolutions(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be at least 1: " + limit);
+        }
+        return contradictory ? 0 : links.search(limit);
+    }
+
+    /**
+     * Tells whether the board has exactly one solution.
+     *
+     * @return true if there is one and only one solution; false otherwise.
+     */
+    public boolean isUnique() {
+        return countSolutions(2) == 1;
+    }
+
+    /**
+     * Writes the four constraints satisfied by a placement: the cell itself, and the number in the
+     * row, in the column and in the block.
+     *
+     * @param row    the row index.
+     * @param col    the column index.
+     * @param value  the number placed (from 1 to size).
+     * @param target the array receiving the four constraint indices.
+     */
+    private void constraints(int row, int col, int value, int[] target) {
+        int cellsCount = size * size;
+        int digit = value - 1;
+        int block = (row / blockRows) * (size / blockCols) + col / blockCols;
+        target[0] = row * size + col;
+        target[1] = cellsCount + row * size + digit;
+        target[2] = 2 * cellsCount + col * size + digit;
+        target[3] = 3 * cellsCount + block * size + digit;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.sudoku.model.solver;
+
+/**
+ * Symmetries of the clue pattern kept by {@link PuzzleGenerator}.
+ * Clues are removed one orbit at a time, so the cells of an orbit are either all clues or all empty.
+ */
+public enum Symmetry {
+    /** Every cell is removed on its own. */
+    NONE,
+    /** A cell and its image under a half turn of the board. */
+    ROTATIONAL,
+    /** A cell and its mirror image across the vertical axis. */
+    MIRROR,
+    /** A cell and its images across both axes, which includes the half turn. */
+    FULL;
+
+    /**
+     * Writes the orbit of a cell: the cell itself followed by its distinct images.
+     *
+     * @param size   the number of rows (and columns) of the board.
+     * @param row    the row index of the cell.
+     * @param col    the column index of the cell.
+     * @param target the array receiving the cell indices (row * size + col); needs room for 4.
+     * @return the number of cells written.
+     */
+    int orbit(int size, int row, int col, int[] target) {
+        int last = size - 1;
+        int count = 0;
+        target[count++] = row * size + col;
+        switch (this) {
+            case NONE -> { }
+            case ROTATIONAL -> count = add(target, count, (last - row) * size + last - col);
+            case MIRROR -> count = add(target, count, row * size + last - col);
+            case FULL -> {
+                count = add(target, count, row * size + last - col);
+                count = add(target, count, (last - row) * size + col);
+                count = add(target, count, (last - row) * size + last - col);
+            }
+        }
+        return count;
+    }
+
+    private static int add(int[] target, int count, int cell) {
+        for (int i = 0; i < count; i++) {
+            if (target[i] == cell) {
+                return count;
+            }
+        }
+        target[count] = cell;
+        return count + 1;
+    }
+}
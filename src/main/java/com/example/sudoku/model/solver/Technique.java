@@ -0,0 +1,36 @@
+package com.example.sudoku.model.solver;
+
+/**
+ * Solving techniques, from the simplest to the hardest.
+ * The order of the constants is the order in which they are tried.
+ */
+public enum Technique {
+    /** A cell has a single candidate left. */
+    NAKED_SINGLE(1),
+    /** A number fits in only one cell of a row, column or block. */
+    HIDDEN_SINGLE(2),
+    /** The candidates of a number in a block are all in one row or column (or the other way around). */
+    LOCKED_CANDIDATES(6),
+    /** Two cells of a unit share the same two candidates. */
+    NAKED_PAIR(10),
+    /** Two numbers of a unit fit only in the same two cells. */
+    HIDDEN_PAIR(14),
+    /** No technique applies and the move is read from a solution of the board. */
+    SOLUTION(60);
+
+    // Points a placement that needs this technique adds to the difficulty score
+    private final int weight;
+
+    Technique(int weight) {
+        this.weight = weight;
+    }
+
+    /**
+     * Returns how much a placement that needs this technique adds to the score of a puzzle.
+     *
+     * @return the weight, higher for harder techniques.
+     */
+    public int getWeight() {
+        return weight;
+    }
+}
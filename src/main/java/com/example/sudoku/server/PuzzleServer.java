@@ -0,0 +1,251 @@
+package com.example.sudoku.server;
+
+import com.example.sudoku.metrics.Metrics;
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSize;
+import com.example.sudoku.model.Difficulty;
+import com.example.sudoku.model.PuzzleFormat;
+import com.example.sudoku.model.PuzzlePrefetcher;
+import com.example.sudoku.model.Suggestion;
+import com.example.sudoku.model.solver.Hints;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless local puzzle service, an optional alternative to generating puzzles inside the game.
+ *
+ * Endpoints (puzzles travel in {@link PuzzleFormat}):
+ * <ul>
+ *   <li>{@code GET /puzzle?size=6&difficulty=MEDIUM}: a puzzle from the pre-generated pool.</li>
+ *   <li>{@code POST /validate}: body {@code size cells}; answers which cells break a rule, whether the
+ *       board is complete and whether it can still be solved.</li>
+ *   <li>{@code POST /hint}: body {@code size cells [solution]}; answers the next correct move and the
+ *       technique behind it.</li>
+ *   <li>{@code GET /metrics}: the counters and latency histograms of {@link Metrics}, as text.</li>
+ * </ul>
+ * Requests run on virtual threads when the JDK offers them (21 and later) and on a bounded thread
+ * pool otherwise. Request bodies are capped, and the pool is bounded, so memory stays bounded under load.
+ *
+ * Usage: {@code PuzzleServer [--port 8080] [--pool 256]}
+ */
+public final class PuzzleServer {
+    // Largest request body accepted, enough for a 25x25 board with its solution
+    private static final int MAX_BODY = 4096;
+
+    private final HttpServer server;
+    private final ExecutorService requests;
+    private final PuzzlePrefetcher prefetcher;
+
+    /**
+     * Creates and starts the server on the loopback interface.
+     *
+     * @param port     the port to listen on (0 picks a free one).
+     * @param poolSize the number of puzzles kept ready per size and difficulty.
+     * @throws IOException if the port cannot be bound.
+     */
+    public PuzzleServer(int port, int poolSize) throws IOException {
+        requests = requestExecutor();
+        prefetcher = new PuzzlePrefetcher(poolSize, Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        for (BoardSize boardSize : BoardSize.values()) {
+            for (Difficulty difficulty : Difficulty.values()) {
+                prefetcher.prefetch(boardSize, difficulty);
+            }
+        }
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(requests);
+        server.createContext("/puzzle", handler("GET", exchange -> {
+            Map<String, String> query = query(exchange);
+            BoardSize boardSize = BoardSize.of(Integer.parseInt(query.getOrDefault("size", "6")));
+            Difficulty difficulty = Difficulty.valueOf(query.getOrDefault("difficulty", "MEDIUM").toUpperCase(Locale.ROOT));
+            // When the pool runs dry the request thread generates the puzzle itself instead of queueing
+            Board board = prefetcher.poll(boardSize, difficulty);
+            return PuzzleFormat.format(board != null ? board : prefetcher.generate(boardSize, difficulty));
+        }));
+        server.createContext("/validate", handler("POST", exchange -> validate(body(exchange))));
+        server.createContext("/hint", handler("POST", exchange -> hint(body(exchange))));
+        server.createContext("/metrics", handler("GET", exchange -> Metrics.dump()));
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the local port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests and shuts the worker threads down.
+     */
+    public void stop() {
+        server.stop(0);
+        requests.shutdownNow();
+        prefetcher.close();
+    }
+
+    /**
+     * Starts the server and keeps it running until the process is stopped.
+     * @param args the command-line arguments
+     * @throws IOException if the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        int poolSize = 256;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--pool" -> poolSize = Integer.parseInt(args[i + 1]);
+                default -> {
+                    System.err.println("Usage: PuzzleServer [--port 8080] [--pool 256]");
+                    System.exit(1);
+                }
+            }
+        }
+        PuzzleServer puzzleServer = new PuzzleServer(port, poolSize);
+        Runtime.getRuntime().addShutdownHook(new Thread(puzzleServer::stop));
+        System.out.println("Puzzle server listening on http://localhost:" + puzzleServer.getPort());
+    }
+
+    /**
+     * Checks every filled cell against the others.
+     *
+     * @param body the size and cells of the board.
+     * @return a JSON object with the conflicting cells, and whether the board is complete and solvable.
+     */
+    static String validate(String body) {
+        String[] fields = body.trim().split("\\s+");
+        if (fields.length < 2) {
+            throw new IllegalArgumentException("Expected size and cells");
+        }
+        BoardSize boardSize = BoardSize.of(Integer.parseInt(fields[0]));
+        int[] values = PuzzleFormat.parseCells(fields[1], boardSize);
+        int size = boardSize.getSize();
+
+        // Place the numbers one by one; a number that clashes with an earlier one is a conflict
+        Board board = Board.empty(boardSize);
+        StringJoiner conflicts = new StringJoiner(",", "[", "]");
+        boolean complete = true;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == 0) {
+                complete = false;
+            } else if (board.isValid(i / size, i % size, values[i]).isValid()) {
+                board.set(i / size, i % size, values[i]);
+            } else {
+                conflicts.add(String.valueOf(i));
+            }
+        }
+        boolean valid = conflicts.length() == 2;
+        boolean solvable = valid && Hints.isSolvable(board);
+        return "{\"valid\":" + valid + ",\"complete\":" + (complete && valid)
+                + ",\"solvable\":" + solvable + ",\"conflicts\":" + conflicts + "}";
+    }
+
+    /**
+     * Finds the next correct move of a board.
+     *
+     * @param body the board in {@link PuzzleFormat}, with or without its solution.
+     * @return a JSON object with the move and its technique, or {@code {"hint":null}} if there is none.
+     */
+    static String hint(String body) {
+        Suggestion suggestion = Hints.logical(PuzzleFormat.parse(body));
+        if (suggestion == null) {
+            return "{\"hint\":null}";
+        }
+        return "{\"row\":" + suggestion.row() + ",\"col\":" + suggestion.col() + ",\"value\":" + suggestion.value()
+                + ",\"technique\":\"" + suggestion.technique() + "\"}";
+    }
+
+    /**
+     * Action behind an endpoint.
+     */
+    private interface Endpoint {
+        String handle(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * Wraps an endpoint with method checking, error handling and response writing.
+     */
+    private static HttpHandler handler(String method, Endpoint endpoint) {
+        return exchange -> {
+            try (exchange) {
+                if (!method.equals(exchange.getRequestMethod())) {
+                    exchange.getResponseHeaders().set("Allow", method);
+                    send(exchange, 405, "Method not allowed");
+                    return;
+                }
+                String response;
+                try {
+                    response = endpoint.handle(exchange);
+                } catch (IllegalArgumentException e) {
+                    send(exchange, 400, String.valueOf(e.getMessage()));
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Type",
+                        response.startsWith("{") ? "application/json" : "text/plain; charset=utf-8");
+                send(exchange, 200, response);
+            }
+        };
+    }
+
+    private static void send(HttpExchange exchange, int status, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String body(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY + 1);
+            if (bytes.length > MAX_BODY) {
+                throw new IllegalArgumentException("Request body too large");
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw != null) {
+            for (String pair : raw.split("&")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    parameters.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                            URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * Returns a virtual-thread-per-task executor when the JDK has one, and a bounded pool otherwise.
+     */
+    private static ExecutorService requestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(4 * Runtime.getRuntime().availableProcessors());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.sudoku.view;
+
+import javafx.css.PseudoClass;
+
+/**
+ * What the controller and the help strategies need from the view of the board
+ * Implemented by the grid of text fields and by CanvasBoardView, chosen with -Dsudoku.board; all the
+ * methods must be called on the JavaFX thread
+ */
+public interface BoardView {
+    /**
+     * Shows a number placed on the board, or empties the cell
+     * A cell with a number is locked; an emptied cell becomes editable again and loses its state
+     * @param row   the row index of the cell
+     * @param col   the column index of the cell
+     * @param value the number of the cell, or 0 if it is empty
+     */
+    void setNumber(int row, int col, int value);
+
+    /**
+     * Tells whether a cell shows nothing: no number of the board and nothing typed by the player
+     * @param row the row index of the cell
+     * @param col the column index of the cell
+     * @return true if the cell is blank
+     */
+    boolean isBlank(int row, int col);
+
+    /**
+     * Puts a cell in one state
+     * @param row   the row index of the cell
+     * @param col   the column index of the cell
+     * @param state CellStyle.VALID, INVALID or HINT, or null for the plain look
+     */
+    void setState(int row, int col, PseudoClass state);
+
+    /**
+     * Marks or unmarks a cell whose number repeats in its row, column or block
+     * @param row      the row index of the cell
+     * @param col      the column index of the cell
+     * @param conflict true to mark the cell
+     */
+    void setConflict(int row, int col, boolean conflict);
+}
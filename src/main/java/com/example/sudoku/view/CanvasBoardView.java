@@ -0,0 +1,319 @@
+package com.example.sudoku.view;
+
+import com.example.sudoku.model.BoardSize;
+import javafx.application.Platform;
+import javafx.css.PseudoClass;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+import java.util.BitSet;
+
+/**
+ * Board view that draws every cell on a single Canvas instead of using one TextField per cell
+ * Selected with -Dsudoku.board=canvas; at 16x16 or 25x25 it replaces hundreds of nodes, text formatters,
+ * key handlers and layout passes with one node
+ * Every change marks its cell dirty, and the dirty cells are repainted together once the current event
+ * has been handled, so a bulk update repaints each cell once and a keystroke repaints one or two cells
+ * Input is handled here for the whole board: a click or the arrow keys select a cell, digits type a number,
+ * Enter accepts a number that could still grow, and Backspace or Delete erase; the numbers typed and the
+ * cells erased are reported to a CellInput
+ * The colors are those of sudoku.css
+ */
+public final class CanvasBoardView extends Region implements BoardView {
+    // Side of each cell, in pixels
+    private static final double CELL_SIZE = 30;
+
+    // Room around the cells for half of the outer lines
+    private static final double PADDING = 1;
+
+    private static final Color CELL_FILL = Color.WHITE;
+    private static final Color SELECTED_FILL = Color.web("#eef0ff");
+    private static final Color SELECTED_LINE = Color.web("#6c5ce7");
+    private static final Color CELL_LINE = Color.web("#dfe6e9");
+    private static final Color BLOCK_LINE = Color.web("#636e72");
+    private static final Color VALID_FILL = Color.web("#dff9fb");
+    private static final Color VALID_LINE = Color.web("#74b9ff");
+    private static final Color INVALID_FILL = Color.web("#ffa7a7");
+    private static final Color INVALID_LINE = Color.web("#ff7675");
+    private static final Color HINT_FILL = Color.web("#ffeaa7");
+    private static final Color HINT_LINE = Color.web("#ffe44f");
+    private static final Color TEXT = Color.web("#2d3436");
+
+    private static final Font NUMBER_FONT = Font.font(16);
+    private static final Font GIVEN_FONT = Font.font(null, FontWeight.BOLD, 16);
+
+    /**
+     * Receiver of what the player does on the board
+     */
+    public interface CellInput {
+        /**
+         * Called when the player finishes typing a number in an empty cell
+         * @param row    the row index of the cell
+         * @param col    the column index of the cell
+         * @param number the number typed, from 1 to the size of the board
+         */
+        void numberTyped(int row, int col, int number);
+
+        /**
+         * Called when the player erases a cell: a number on the board, or the last digit of a number typed but not accepted
+         * @param row the row index of the cell
+         * @param col the column index of the cell
+         */
+        void cellErased(int row, int col);
+    }
+
+    private final int size;
+    private final int blockRows;
+    private final int blockCols;
+    private final Canvas canvas;
+    private final CellInput input;
+
+    // State of every cell, in row-major order
+    private final int[] numbers;
+    private final int[] typed;
+    private final boolean[] givens;
+    private final boolean[] conflicts;
+    private final PseudoClass[] states;
+
+    // Cells to repaint at the next repaint
+    private final BitSet dirty = new BitSet();
+    private boolean repaintScheduled;
+
+    private int selected;
+
+    /**
+     * Creates an empty board view
+     * @param boardSize the geometry of the board
+     * @param input     the receiver of the numbers typed and the cells erased
+     */
+    public CanvasBoardView(BoardSize boardSize, CellInput input) {
+        this.size = boardSize.getSize();
+        this.blockRows = boardSize.getBlockRows();
+        this.blockCols = boardSize.getBlockCols();
+        this.input = input;
+        int cellCount = boardSize.getCellCount();
+        numbers = new int[cellCount];
+        typed = new int[cellCount];
+        givens = new boolean[cellCount];
+        conflicts = new boolean[cellCount];
+        states = new PseudoClass[cellCount];
+
+        double side = size * CELL_SIZE + 2 * PADDING;
+        canvas = new Canvas(side, side);
+        getChildren().add(canvas);
+        setMinSize(side, side);
+        setPrefSize(side, side);
+        setMaxSize(side, side);
+        setFocusTraversable(true);
+
+        addEventHandler(MouseEvent.MOUSE_PRESSED, this::mousePressed);
+        addEventHandler(KeyEvent.KEY_PRESSED, this::keyPressed);
+        addEventHandler(KeyEvent.KEY_TYPED, this::keyTyped);
+        focusedProperty().addListener((observable, wasFocused, isFocused) -> markDirty(selected));
+
+        dirty.set(0, cellCount);
+        scheduleRepaint();
+    }
+
+    /**
+     * Marks a cell as part of the puzzle, which draws its number in bold
+     * @param row   the row index of the cell
+     * @param col   the column index of the cell
+     * @param given true if the number was given
+     */
+    public void setGiven(int row, int col, boolean given) {
+        givens[row * size + col] = given;
+        markDirty(row * size + col);
+    }
+
+    @Override
+    public void setNumber(int row, int col, int value) {
+        int cell = row * size + col;
+        numbers[cell] = value;
+        typed[cell] = 0;
+        if (value == 0) {
+            states[cell] = null;
+        }
+        markDirty(cell);
+    }
+
+    @Override
+    public boolean isBlank(int row, int col) {
+        int cell = row * size + col;
+        return numbers[cell] == 0 && typed[cell] == 0;
+    }
+
+    @Override
+    public void setState(int row, int col, PseudoClass state) {
+        states[row * size + col] = state;
+        markDirty(row * size + col);
+    }
+
+    @Override
+    public void setConflict(int row, int col, boolean conflict) {
+        conflicts[row * size + col] = conflict;
+        markDirty(row * size + col);
+    }
+
+    private void mousePressed(MouseEvent event) {
+        int col = (int) ((event.getX() - PADDING) / CELL_SIZE);
+        int row = (int) ((event.getY() - PADDING) / CELL_SIZE);
+        if (row >= 0 && row < size && col >= 0 && col < size) {
+            select(row * size + col);
+        }
+        requestFocus();
+        event.consume();
+    }
+
+    private void keyPressed(KeyEvent event) {
+        int row = selected / size;
+        int col = selected % size;
+        switch (event.getCode()) {
+            case UP -> select(Math.max(0, row - 1) * size + col);
+            case DOWN -> select(Math.min(size - 1, row + 1) * size + col);
+            case LEFT -> select(row * size + Math.max(0, col - 1));
+            case RIGHT -> select(row * size + Math.min(size - 1, col + 1));
+            case ENTER -> {
+                if (numbers[selected] == 0 && typed[selected] != 0) {
+                    input.numberTyped(row, col, typed[selected]);
+                }
+            }
+            case BACK_SPACE, DELETE -> erase(row, col);
+            default -> {
+                return;
+            }
+        }
+        event.consume();
+    }
+
+    private void keyTyped(KeyEvent event) {
+        String character = event.getCharacter();
+        if (character.length() != 1 || !Character.isDigit(character.charAt(0)) || numbers[selected] != 0) {
+            return;
+        }
+        event.consume();
+        // Same rule as the text fields: only numbers from 1 to the size of the board can be typed
+        int number = typed[selected] * 10 + (character.charAt(0) - '0');
+        if (number == 0 || number > size) {
+            return;
+        }
+        typed[selected] = number;
+        markDirty(selected);
+        // Wait for the second digit unless the number cannot grow any further
+        if (number * 10 > size) {
+            input.numberTyped(selected / size, selected % size, number);
+        }
+    }
+
+    private void erase(int row, int col) {
+        int cell = row * size + col;
+        if (numbers[cell] == 0 && typed[cell] != 0) {
+            typed[cell] /= 10;
+            markDirty(cell);
+            if (typed[cell] != 0) {
+                return;
+            }
+        }
+        input.cellErased(row, col);
+    }
+
+    private void select(int cell) {
+        markDirty(selected);
+        selected = cell;
+        markDirty(cell);
+    }
+
+    private void markDirty(int cell) {
+        dirty.set(cell);
+        scheduleRepaint();
+    }
+
+    private void scheduleRepaint() {
+        if (!repaintScheduled) {
+            repaintScheduled = true;
+            Platform.runLater(this::repaint);
+        }
+    }
+
+    /**
+     * Repaints the dirty cells
+     */
+    private void repaint() {
+        repaintScheduled = false;
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        graphics.setTextAlign(TextAlignment.CENTER);
+        graphics.setTextBaseline(VPos.CENTER);
+        for (int cell = dirty.nextSetBit(0); cell >= 0; cell = dirty.nextSetBit(cell + 1)) {
+            paintCell(graphics, cell);
+        }
+        dirty.clear();
+    }
+
+    /**
+     * Paints one cell: its background, the border of its state, its number and the four lines around it
+     * The lines are shared with the neighbours and are drawn whole, so they survive the repaint of either cell
+     */
+    private void paintCell(GraphicsContext graphics, int cell) {
+        int row = cell / size;
+        int col = cell % size;
+        double x = PADDING + col * CELL_SIZE;
+        double y = PADDING + row * CELL_SIZE;
+        PseudoClass state = states[cell];
+
+        Color fill;
+        Color line;
+        if (conflicts[cell] || state == CellStyle.INVALID) {
+            fill = INVALID_FILL;
+            line = INVALID_LINE;
+        } else if (state == CellStyle.VALID) {
+            fill = VALID_FILL;
+            line = VALID_LINE;
+        } else if (state == CellStyle.HINT) {
+            fill = HINT_FILL;
+            line = HINT_LINE;
+        } else {
+            fill = cell == selected ? SELECTED_FILL : CELL_FILL;
+            line = null;
+        }
+        graphics.setFill(fill);
+        graphics.fillRect(x, y, CELL_SIZE, CELL_SIZE);
+        if (cell == selected && isFocused()) {
+            line = SELECTED_LINE;
+        }
+        if (line != null) {
+            graphics.setStroke(line);
+            graphics.setLineWidth(2);
+            graphics.strokeRect(x + 3, y + 3, CELL_SIZE - 6, CELL_SIZE - 6);
+        }
+
+        int number = numbers[cell] != 0 ? numbers[cell] : typed[cell];
+        if (number != 0) {
+            graphics.setFill(TEXT);
+            graphics.setFont(givens[cell] ? GIVEN_FONT : NUMBER_FONT);
+            graphics.fillText(String.valueOf(number), x + CELL_SIZE / 2, y + CELL_SIZE / 2);
+        }
+
+        boolean blockTop = row % blockRows == 0 && row != 0;
+        boolean blockBottom = row % blockRows == blockRows - 1 && row != size - 1;
+        boolean blockLeft = col % blockCols == 0 && col != 0;
+        boolean blockRight = col % blockCols == blockCols - 1 && col != size - 1;
+        strokeLine(graphics, x, y, x + CELL_SIZE, y, blockTop);
+        strokeLine(graphics, x, y + CELL_SIZE, x + CELL_SIZE, y + CELL_SIZE, blockBottom);
+        strokeLine(graphics, x, y, x, y + CELL_SIZE, blockLeft);
+        strokeLine(graphics, x + CELL_SIZE, y, x + CELL_SIZE, y + CELL_SIZE, blockRight);
+    }
+
+    private void strokeLine(GraphicsContext graphics, double x1, double y1, double x2, double y2, boolean block) {
+        graphics.setStroke(block ? BLOCK_LINE : CELL_LINE);
+        graphics.setLineWidth(block ? 2 : 1);
+        graphics.strokeLine(x1, y1, x2, y2);
+    }
+}
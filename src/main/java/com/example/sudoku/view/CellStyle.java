@@ -0,0 +1,83 @@
+package com.example.sudoku.view;
+
+import com.example.sudoku.model.BoardSize;
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+
+/**
+ * Pseudo-classes that select the look of a cell in sudoku.css
+ * A cell gets its block lines and corners once, when it is created, and afterwards only switches
+ * between states; toggling a pseudo-class restyles the cell without parsing any CSS
+ */
+public final class CellStyle {
+    /** Style class of every cell */
+    public static final String STYLE_CLASS = "sudoku-cell";
+
+    /** Number accepted when the player typed it */
+    public static final PseudoClass VALID = PseudoClass.getPseudoClass("valid");
+
+    /** Number rejected because it repeats in a row, column or block */
+    public static final PseudoClass INVALID = PseudoClass.getPseudoClass("invalid");
+
+    /** Number placed by the help button */
+    public static final PseudoClass HINT = PseudoClass.getPseudoClass("hint");
+
+    /** Number repeated elsewhere in its row, column or block, found by the check of the whole board */
+    public static final PseudoClass CONFLICT = PseudoClass.getPseudoClass("conflict");
+
+    /** Number that was part of the puzzle */
+    public static final PseudoClass GIVEN = PseudoClass.getPseudoClass("given");
+
+    private static final PseudoClass BLOCK_TOP = PseudoClass.getPseudoClass("block-top");
+    private static final PseudoClass BLOCK_RIGHT = PseudoClass.getPseudoClass("block-right");
+    private static final PseudoClass BLOCK_BOTTOM = PseudoClass.getPseudoClass("block-bottom");
+    private static final PseudoClass BLOCK_LEFT = PseudoClass.getPseudoClass("block-left");
+    private static final PseudoClass CORNER_TOP_LEFT = PseudoClass.getPseudoClass("corner-top-left");
+    private static final PseudoClass CORNER_TOP_RIGHT = PseudoClass.getPseudoClass("corner-top-right");
+    private static final PseudoClass CORNER_BOTTOM_RIGHT = PseudoClass.getPseudoClass("corner-bottom-right");
+    private static final PseudoClass CORNER_BOTTOM_LEFT = PseudoClass.getPseudoClass("corner-bottom-left");
+
+    private CellStyle() {
+    }
+
+    /**
+     * Returns the location of the stylesheet of the game
+     * @return the URL of sudoku.css, ready for Scene.getStylesheets()
+     */
+    public static String stylesheet() {
+        return CellStyle.class.getResource("/com/example/sudoku/sudoku.css").toExternalForm();
+    }
+
+    /**
+     * Marks a node as a cell and sets the block lines and corners that belong to its position
+     * @param cell      the node of the cell
+     * @param boardSize the geometry of the board
+     * @param row       the row index of the cell
+     * @param col       the column index of the cell
+     */
+    public static void decorate(Node cell, BoardSize boardSize, int row, int col) {
+        int size = boardSize.getSize();
+        int blockRows = boardSize.getBlockRows();
+        int blockCols = boardSize.getBlockCols();
+        cell.getStyleClass().add(STYLE_CLASS);
+        cell.pseudoClassStateChanged(BLOCK_TOP, row % blockRows == 0 && row != 0);
+        cell.pseudoClassStateChanged(BLOCK_RIGHT, col % blockCols == blockCols - 1 && col != size - 1);
+        cell.pseudoClassStateChanged(BLOCK_BOTTOM, row % blockRows == blockRows - 1 && row != size - 1);
+        cell.pseudoClassStateChanged(BLOCK_LEFT, col % blockCols == 0 && col != 0);
+        cell.pseudoClassStateChanged(CORNER_TOP_LEFT, row == 0 && col == 0);
+        cell.pseudoClassStateChanged(CORNER_TOP_RIGHT, row == 0 && col == size - 1);
+        cell.pseudoClassStateChanged(CORNER_BOTTOM_RIGHT, row == size - 1 && col == size - 1);
+        cell.pseudoClassStateChanged(CORNER_BOTTOM_LEFT, row == size - 1 && col == 0);
+    }
+
+    /**
+     * Puts a cell in one state, leaving the others; CONFLICT and GIVEN are set separately
+     * @param cell  the node of the cell
+     * @param state VALID, INVALID or HINT, or null for the plain look
+     */
+    public static void show(Node cell, PseudoClass state) {
+        cell.pseudoClassStateChanged(VALID, state == VALID);
+        cell.pseudoClassStateChanged(INVALID, state == INVALID);
+        cell.pseudoClassStateChanged(HINT, state == HINT);
+    }
+}
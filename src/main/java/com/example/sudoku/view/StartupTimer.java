@@ -0,0 +1,119 @@
+package com.example.sudoku.view;
+
+import javafx.animation.AnimationTimer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long the application takes to start, from the start of the JVM to the first frame where the board can be played
+ * The milestones are printed once on a single line; with -Dsudoku.startupLog=<file> they are also appended to a CSV file
+ * (one row per start), so a slower start shows up when comparing runs
+ */
+public final class StartupTimer {
+    // Milestones in the order they were reached, in milliseconds since the JVM started
+    private static final Map<String, Long> milestones = new LinkedHashMap<>();
+
+    // Time the JVM started, in milliseconds since the epoch
+    private static final long jvmStart = ProcessHandle.current().info().startInstant()
+            .map(Instant::toEpochMilli)
+            .orElse(System.currentTimeMillis());
+
+    // Longest time the frames are watched for the first board, after which the startup is reported as it is
+    private static final long WATCH_LIMIT_SECONDS = 30;
+
+    private static boolean boardShown;
+    private static boolean reported;
+
+    private StartupTimer() {
+    }
+
+    /**
+     * Records a milestone of the startup; only the first time a milestone is reached counts
+     * @param name the name of the milestone
+     */
+    public static synchronized void mark(String name) {
+        if (!reported) {
+            milestones.putIfAbsent(name, System.currentTimeMillis() - jvmStart);
+        }
+    }
+
+    /**
+     * Records that the first board is on the screen and can be played
+     * The startup ends with the next frame, which is the first one that shows the board
+     */
+    public static synchronized void markBoardShown() {
+        mark("board");
+        boardShown = true;
+    }
+
+    /**
+     * Waits for the first frames after the window is shown and reports the startup once the board is on screen
+     * If no board arrives within the watch limit, the frames stop being watched and the milestones reached so far are reported
+     * Must be called on the JavaFX thread, right after the window is shown
+     */
+    public static void watchFrames() {
+        mark("shown");
+        new AnimationTimer() {
+            private long firstFrame = -1;
+
+            @Override
+            public void handle(long now) {
+                mark("first frame");
+                if (firstFrame < 0) {
+                    firstFrame = now;
+                }
+                boolean shown;
+                synchronized (StartupTimer.class) {
+                    shown = boardShown;
+                }
+                if (shown) {
+                    mark("interactive");
+                    stop();
+                    report("");
+                } else if (now - firstFrame > TimeUnit.SECONDS.toNanos(WATCH_LIMIT_SECONDS)) {
+                    stop();
+                    report(" (no board after " + WATCH_LIMIT_SECONDS + " s)");
+                }
+            }
+        }.start();
+    }
+
+    /**
+     * Prints the milestones and appends them to the startup log, if any
+     * @param note text added to the printed line, empty if the board was shown
+     */
+    private static synchronized void report(String note) {
+        if (reported) {
+            return;
+        }
+        reported = true;
+        StringJoiner line = new StringJoiner(" -> ", "Startup: JVM start -> ", "");
+        StringJoiner csv = new StringJoiner(",");
+        csv.add(String.valueOf(jvmStart));
+        csv.add(System.getProperty("sudoku.scene", "fxml"));
+        for (Map.Entry<String, Long> milestone : milestones.entrySet()) {
+            line.add(String.format(Locale.ROOT, "%s %d ms", milestone.getKey(), milestone.getValue()));
+            csv.add(milestone.getKey() + "=" + milestone.getValue());
+        }
+        System.out.println(line + note);
+
+        String log = System.getProperty("sudoku.startupLog");
+        if (log != null) {
+            try {
+                Files.writeString(Path.of(log), csv + System.lineSeparator(),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                System.out.println("Failed to write the startup log: " + e.getMessage());
+            }
+        }
+    }
+}
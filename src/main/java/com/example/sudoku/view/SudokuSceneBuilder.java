@@ -0,0 +1,82 @@
+package com.example.sudoku.view;
+
+import com.example.sudoku.controller.SudokuController;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.AnchorPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+/**
+ * Builds the same scene as sudoku-view.fxml directly in code
+ * Skips the XML parsing and the reflection of FXMLLoader, which take a noticeable part of a cold start
+ */
+public final class SudokuSceneBuilder {
+    private SudokuSceneBuilder() {
+    }
+
+    /**
+     * Builds the scene and connects a new controller to it
+     * @return the scene of the game
+     */
+    public static Scene build() {
+        AnchorPane root = new AnchorPane();
+        root.setPrefSize(400.0, 400.0);
+        root.getStyleClass().add("sudoku-root");
+        root.getStylesheets().add(CellStyle.stylesheet());
+
+        ImageView title = new ImageView(new Image(SudokuSceneBuilder.class.getResource("/titulo-sudoku.png").toExternalForm()));
+        title.setFitHeight(180.0);
+        title.setFitWidth(200.0);
+        title.setLayoutX(100.0);
+        title.setLayoutY(-20.0);
+
+        GridPane boardGridPane = new GridPane();
+        boardGridPane.setLayoutX(100.0);
+        boardGridPane.setLayoutY(155.0);
+        boardGridPane.setPrefSize(200.0, 200.0);
+        boardGridPane.getStyleClass().add("board");
+        AnchorPane.setTopAnchor(boardGridPane, 100.0);
+        AnchorPane.setRightAnchor(boardGridPane, 100.0);
+        AnchorPane.setBottomAnchor(boardGridPane, 100.0);
+        AnchorPane.setLeftAnchor(boardGridPane, 100.0);
+
+        Label errorLabel = new Label("");
+        errorLabel.setAlignment(Pos.CENTER);
+        errorLabel.getStyleClass().add("message");
+
+        Button undoButton = button("Deshacer");
+        Button helpButton = button("Ayuda");
+        Button redoButton = button("Rehacer");
+        Button newGameButton = button("Nuevo juego");
+        HBox buttons = new HBox(10.0, undoButton, helpButton, redoButton, newGameButton);
+        buttons.setAlignment(Pos.CENTER);
+
+        VBox bottom = new VBox(10.0, errorLabel, buttons);
+        bottom.setAlignment(Pos.TOP_CENTER);
+        AnchorPane.setBottomAnchor(bottom, 50.0);
+        AnchorPane.setLeftAnchor(bottom, 0.0);
+        AnchorPane.setRightAnchor(bottom, 0.0);
+
+        root.getChildren().addAll(title, boardGridPane, bottom);
+
+        new SudokuController().attach(boardGridPane, errorLabel, undoButton, helpButton, redoButton, newGameButton);
+        return new Scene(root);
+    }
+
+    /**
+     * Creates a button with the style class shared by every button of the game
+     * @param text the text of the button
+     * @return the new button
+     */
+    private static Button button(String text) {
+        Button button = new Button(text);
+        button.getStyleClass().add("game-button");
+        return button;
+    }
+}
@@ -15,13 +15,19 @@ public class SudokuStage extends Stage {
 
     /**
      * Constructs a new SudokuStage
-     * Loads the FXML layout, creates the scene, sets the title
+     * Creates the scene (from the FXML layout, or in code with -Dsudoku.scene=code), sets the title
      * adds an icon, and displays the stage
      * @throws IOException if the FXML file cannot be loaded.
      */
     public SudokuStage() throws IOException {
-        FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/com/example/sudoku/sudoku-view.fxml"));
-        Scene scene = new Scene(fxmlLoader.load());
+        Scene scene;
+        if ("code".equals(System.getProperty("sudoku.scene"))) {
+            scene = SudokuSceneBuilder.build();
+        } else {
+            FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource("/com/example/sudoku/sudoku-view.fxml"));
+            scene = new Scene(fxmlLoader.load());
+        }
+        StartupTimer.mark("scene");
         setTitle("Sudoku");
         setResizable(false);
         setScene(scene);
@@ -30,6 +36,7 @@ public class SudokuStage extends Stage {
         setIcon();
 
         show();
+        StartupTimer.watchFrames();
     }
     /**
      * Sets the icon for the window using the resource
@@ -1,11 +1,19 @@
 module com.example.sudoku {
-    requires javafx.controls;
+    requires transitive javafx.controls;
     requires javafx.fxml;
     requires java.desktop;
+    requires java.net.http;
+    requires jdk.httpserver;
+    requires jdk.jfr;
+    requires static jdk.incubator.vector;
 
 
     opens com.example.sudoku to javafx.fxml;
     exports com.example.sudoku;
     exports com.example.sudoku.controller;
+    exports com.example.sudoku.metrics;
+    exports com.example.sudoku.model;
+    exports com.example.sudoku.model.solver;
+    exports com.example.sudoku.view;
     opens com.example.sudoku.controller to javafx.fxml;
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package com.example.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandidatesTest {
+    private static final int STEPS = 2_000;
+
+    @Test
+    void followsRandomSetsAndClears() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (BoardSize boardSize : BoardSize.values()) {
+            int size = boardSize.getSize();
+            Board board = Board.solved(boardSize, random);
+            for (int cell = 0; cell < boardSize.getCellCount(); cell++) {
+                if (random.nextBoolean()) {
+                    board.clear(cell / size, cell % size);
+                }
+            }
+            Candidates candidates = board.getCandidates();
+            check(board, candidates, boardSize + " before any change");
+
+            for (int step = 0; step < STEPS; step++) {
+                int cell = random.nextInt(boardSize.getCellCount());
+                int row = cell / size;
+                int col = cell % size;
+                if (board.get(row, col) != 0 && random.nextInt(3) == 0) {
+                    board.clear(row, col);
+                } else {
+                    // Any number the other cells allow, so the board never breaks a rule
+                    int current = board.get(row, col);
+                    board.clear(row, col);
+                    int[] allowed = numbers(board.candidates(row, col));
+                    board.set(row, col, allowed.length == 0 ? current : allowed[random.nextInt(allowed.length)]);
+                }
+                check(board, candidates, boardSize + " step " + step);
+            }
+        }
+    }
+
+    @Test
+    void eliminationsLastUntilAPeerChanges() {
+        Board board = Board.empty(BoardSize.of(9));
+        Candidates candidates = board.getCandidates();
+        assertTrue(candidates.eliminate(0, 0, 5));
+        assertFalse(candidates.eliminate(0, 0, 5));
+        assertEquals(8, candidates.count(0, 0));
+        assertEquals(0, candidates.cellWithFewestCandidates());
+
+        // Placing and removing a 5 in the same row gives the 5 back to the cell
+        board.set(0, 8, 5);
+        board.clear(0, 8);
+        assertEquals(9, candidates.count(0, 0));
+    }
+
+    @Test
+    void reportsNoCellOnAFullBoard() {
+        Board board = Board.solved(BoardSize.of(4), new SplittableRandom(1));
+        Candidates candidates = board.getCandidates();
+        assertEquals(-1, candidates.cellWithFewestCandidates());
+        assertEquals(0, candidates.cellsWithFewestCandidates().length);
+    }
+
+    /**
+     * Compares the tracker with candidates recomputed from scratch and with a scan for the fewest candidates.
+     */
+    private static void check(Board board, Candidates candidates, String message) {
+        BoardSize boardSize = board.getBoardSize();
+        int size = boardSize.getSize();
+        int[] rows = new int[size];
+        int[] cols = new int[size];
+        int[] blocks = new int[size];
+        for (int cell = 0; cell < boardSize.getCellCount(); cell++) {
+            int bit = 1 << board.get(cell / size, cell % size);
+            rows[cell / size] |= bit;
+            cols[cell % size] |= bit;
+            blocks[boardSize.blockIndex(cell / size, cell % size)] |= bit;
+        }
+        int full = ((1 << size) - 1) << 1;
+
+        int fewest = Integer.MAX_VALUE;
+        for (int cell = 0; cell < boardSize.getCellCount(); cell++) {
+            int row = cell / size;
+            int col = cell % size;
+            int expected = board.get(row, col) != 0
+                    ? 0
+                    : full & ~(rows[row] | cols[col] | blocks[boardSize.blockIndex(row, col)]);
+            assertEquals(expected, candidates.get(row, col), message + ", cell " + cell);
+            assertEquals(Integer.bitCount(expected), candidates.count(row, col), message + ", cell " + cell);
+            if (board.get(row, col) == 0) {
+                fewest = Math.min(fewest, Integer.bitCount(expected));
+            }
+        }
+
+        int[] expectedCells = new int[boardSize.getCellCount()];
+        int n = 0;
+        for (int cell = 0; cell < boardSize.getCellCount(); cell++) {
+            if (board.get(cell / size, cell % size) == 0 && candidates.count(cell / size, cell % size) == fewest) {
+                expectedCells[n++] = cell;
+            }
+        }
+        int[] cells = candidates.cellsWithFewestCandidates();
+        Arrays.sort(cells);
+        assertArrayEquals(Arrays.copyOf(expectedCells, n), cells, message);
+        int first = candidates.cellWithFewestCandidates();
+        if (n == 0) {
+            assertEquals(-1, first, message);
+        } else {
+            assertEquals(fewest, candidates.count(first / size, first % size), message);
+        }
+    }
+
+    private static int[] numbers(int mask) {
+        int[] numbers = new int[Integer.bitCount(mask)];
+        for (int i = 0; mask != 0; i++) {
+            numbers[i] = Integer.numberOfTrailingZeros(mask);
+            mask &= mask - 1;
+        }
+        return numbers;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CanonicalFormTest {
+    private static final int BOARDS = 200;
+
+    @Test
+    void exhaustiveUpToNineByNine() {
+        assertTrue(CanonicalForm.isExhaustive(BoardSize.of(4)));
+        assertTrue(CanonicalForm.isExhaustive(BoardSize.of(6)));
+        assertTrue(CanonicalForm.isExhaustive(BoardSize.of(9)));
+        assertFalse(CanonicalForm.isExhaustive(BoardSize.of(12)));
+        assertFalse(CanonicalForm.isExhaustive(BoardSize.of(16)));
+        assertFalse(CanonicalForm.isExhaustive(BoardSize.of(25)));
+    }
+
+    @Test
+    void equivalentBoardsShareTheirForm() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int size : new int[] {4, 6, 9}) {
+            BoardSize boardSize = BoardSize.of(size);
+            for (int i = 0; i < BOARDS; i++) {
+                int[] cells = puzzle(boardSize, random);
+                BoardSnapshot form = CanonicalForm.of(BoardSnapshot.of(boardSize, cells));
+                int[] transformed = relabel(boardSize, shuffle(boardSize, cells, random), random);
+                if (boardSize.getBlockRows() == boardSize.getBlockCols() && random.nextBoolean()) {
+                    transformed = transpose(boardSize, transformed);
+                }
+                assertEquals(form, CanonicalForm.of(BoardSnapshot.of(boardSize, transformed)), boardSize + " board " + i);
+                assertEquals(form, CanonicalForm.of(form), boardSize + " board " + i);
+            }
+        }
+    }
+
+    @Test
+    void largeBoardsShareTheirFormUnderRelabelingAndTransposition() {
+        SplittableRandom random = new SplittableRandom(11);
+        for (int size : new int[] {12, 16, 25}) {
+            BoardSize boardSize = BoardSize.of(size);
+            for (int i = 0; i < 10; i++) {
+                int[] cells = puzzle(boardSize, random);
+                BoardSnapshot form = CanonicalForm.of(BoardSnapshot.of(boardSize, cells));
+                int[] transformed = relabel(boardSize, cells, random);
+                if (boardSize.getBlockRows() == boardSize.getBlockCols()) {
+                    transformed = transpose(boardSize, transformed);
+                }
+                assertEquals(form, CanonicalForm.of(BoardSnapshot.of(boardSize, transformed)), boardSize + " board " + i);
+                assertEquals(form, CanonicalForm.of(form), boardSize + " board " + i);
+            }
+        }
+    }
+
+    @Test
+    void differentPuzzlesKeepDifferentForms() {
+        BoardSize boardSize = BoardSize.of(4);
+        int[] one = new int[16];
+        int[] two = new int[16];
+        one[0] = 1;
+        one[1] = 2;
+        // Two numbers in one row against two numbers in different rows, columns and blocks
+        two[0] = 1;
+        two[15] = 2;
+        assertNotEquals(CanonicalForm.of(BoardSnapshot.of(boardSize, one)),
+                CanonicalForm.of(BoardSnapshot.of(boardSize, two)));
+    }
+
+    @Test
+    void distinctKeepsTheFirstBoardOfEveryClass() {
+        SplittableRandom random = new SplittableRandom(3);
+        BoardSize boardSize = BoardSize.of(4);
+        List<Board> boards = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            boards.add(BoardSnapshot.of(boardSize, puzzle(boardSize, random)).toBoard());
+        }
+
+        List<Board> expected = new ArrayList<>();
+        List<BoardSnapshot> seen = new ArrayList<>();
+        for (Board board : boards) {
+            BoardSnapshot form = CanonicalForm.of(board);
+            if (!seen.contains(form)) {
+                seen.add(form);
+                expected.add(board);
+            }
+        }
+        assertTrue(expected.size() < boards.size());
+        assertEquals(expected, boards.stream().collect(CanonicalForm.distinct(boardSize)));
+        assertEquals(expected, boards.parallelStream().collect(CanonicalForm.distinct(boardSize)));
+        assertEquals(expected.size(), boards.stream().map(CanonicalForm::of).collect(Collectors.toSet()).size());
+    }
+
+    /**
+     * A solved board with about half of the cells emptied.
+     */
+    private static int[] puzzle(BoardSize boardSize, SplittableRandom random) {
+        int[] cells = BoardSnapshot.of(Board.solved(boardSize, random)).toCells();
+        for (int cell = 0; cell < cells.length; cell++) {
+            if (random.nextBoolean()) {
+                cells[cell] = 0;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Swaps bands, rows within each band, stacks and columns within each stack at random.
+     */
+    private static int[] shuffle(BoardSize boardSize, int[] cells, SplittableRandom random) {
+        int size = boardSize.getSize();
+        int[] rows = lines(size, boardSize.getBlockRows(), random);
+        int[] cols = lines(size, boardSize.getBlockCols(), random);
+        int[] shuffled = new int[cells.length];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                shuffled[row * size + col] = cells[rows[row] * size + cols[col]];
+            }
+        }
+        return shuffled;
+    }
+
+    /**
+     * Returns a random order of the lines that keeps the lines of each group together.
+     */
+    private static int[] lines(int size, int group, SplittableRandom random) {
+        int[] groups = permutation(size / group, random);
+        int[] lines = new int[size];
+        for (int g = 0; g < groups.length; g++) {
+            int[] within = permutation(group, random);
+            for (int i = 0; i < group; i++) {
+                lines[g * group + i] = groups[g] * group + within[i];
+            }
+        }
+        return lines;
+    }
+
+    private static int[] relabel(BoardSize boardSize, int[] cells, SplittableRandom random) {
+        int[] names = permutation(boardSize.getSize(), random);
+        int[] relabeled = new int[cells.length];
+        for (int cell = 0; cell < cells.length; cell++) {
+            relabeled[cell] = cells[cell] == 0 ? 0 : names[cells[cell] - 1] + 1;
+        }
+        return relabeled;
+    }
+
+    private static int[] transpose(BoardSize boardSize, int[] cells) {
+        int size = boardSize.getSize();
+        int[] transposed = new int[cells.length];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                transposed[col * size + row] = cells[row * size + col];
+            }
+        }
+        return transposed;
+    }
+
+    private static int[] permutation(int n, SplittableRandom random) {
+        int[] permutation = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = random.nextInt(i + 1);
+            permutation[i] = permutation[j];
+            permutation[j] = i;
+        }
+        return permutation;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GridVerifierTest {
+    // Not a multiple of any vector length, so the last grids go through the padded copy
+    private static final int GRIDS = 301;
+
+    @Test
+    void vectorVerifierIsUsedWhenTheHardwareRunsIt() {
+        // Surefire runs with --add-modules jdk.incubator.vector, so only the vector width decides
+        for (BoardSize boardSize : BoardSize.values()) {
+            assertEquals(VectorGridVerifier.isSupported(), GridVerifier.forSize(boardSize).isVectorized(), boardSize.toString());
+        }
+    }
+
+    @Test
+    void vectorAndScalarAgreeOnEverySize() {
+        SplittableRandom random = new SplittableRandom(17);
+        for (BoardSize boardSize : BoardSize.values()) {
+            int cellCount = boardSize.getCellCount();
+            byte[] grids = grids(boardSize, random);
+            GridVerifier vector = GridVerifier.forSize(boardSize);
+            GridVerifier scalar = GridVerifier.scalar(boardSize);
+
+            BitSet vectorInvalid = new BitSet();
+            BitSet scalarInvalid = new BitSet();
+            int vectorCount = vector.verify(grids, GRIDS, vectorInvalid);
+            int scalarCount = scalar.verify(grids, GRIDS, scalarInvalid);
+            assertEquals(scalarInvalid, vectorInvalid, boardSize.toString());
+            assertEquals(scalarCount, vectorCount, boardSize.toString());
+            assertEquals(scalarInvalid.cardinality(), scalarCount);
+            assertTrue(scalarCount > 0 && scalarCount < GRIDS, boardSize.toString());
+
+            for (int grid = 0; grid < GRIDS; grid++) {
+                int[] conflicts = scalar.conflicts(grids, grid);
+                assertArrayEquals(conflicts, vector.conflicts(grids, grid));
+                assertEquals(scalarInvalid.get(grid), conflicts.length > 0, boardSize + " grid " + grid);
+                assertEquals(scalarInvalid.get(grid), !isValid(boardSize, grids, grid * cellCount),
+                        boardSize + " grid " + grid);
+            }
+        }
+    }
+
+    @Test
+    void outOfRangeNumbersMakeTheGridInvalid() {
+        for (BoardSize boardSize : BoardSize.values()) {
+            byte[] grids = new byte[2 * boardSize.getCellCount()];
+            grids[boardSize.getCellCount() + 3] = (byte) (boardSize.getSize() + 1);
+            for (GridVerifier verifier : new GridVerifier[] {GridVerifier.forSize(boardSize), GridVerifier.scalar(boardSize)}) {
+                BitSet invalid = new BitSet();
+                assertEquals(1, verifier.verify(grids, 2, invalid));
+                assertTrue(invalid.get(1));
+            }
+        }
+    }
+
+    /**
+     * Solved boards with about a third of the cells emptied; one in four also has a random number placed
+     * in a random cell, which often repeats.
+     */
+    private static byte[] grids(BoardSize boardSize, SplittableRandom random) {
+        int size = boardSize.getSize();
+        int cellCount = boardSize.getCellCount();
+        byte[] grids = new byte[GRIDS * cellCount];
+        for (int grid = 0; grid < GRIDS; grid++) {
+            Board solved = Board.solved(boardSize, random);
+            for (int cell = 0; cell < cellCount; cell++) {
+                if (random.nextInt(3) != 0) {
+                    grids[grid * cellCount + cell] = (byte) solved.get(cell / size, cell % size);
+                }
+            }
+            if (grid % 4 == 3) {
+                grids[grid * cellCount + random.nextInt(cellCount)] = (byte) (1 + random.nextInt(size));
+            }
+        }
+        return grids;
+    }
+
+    /**
+     * Reference check: places the numbers one by one on an empty board.
+     */
+    private static boolean isValid(BoardSize boardSize, byte[] grids, int offset) {
+        int size = boardSize.getSize();
+        Board board = Board.empty(boardSize);
+        for (int cell = 0; cell < boardSize.getCellCount(); cell++) {
+            int value = grids[offset + cell];
+            if (value != 0) {
+                if (!board.isValid(cell / size, cell % size, value).isValid()) {
+                    return false;
+                }
+                board.set(cell / size, cell % size, value);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MoveJournalTest {
+    // Givens at r0c0 and r0c3
+    private static final String PUZZLE = "4 1..4............ 1234341221434321";
+
+    @Test
+    void recordsKeepEveryField() {
+        for (MoveJournal.Kind kind : MoveJournal.Kind.values()) {
+            for (int cell : new int[] {0, 1, 624, 1023}) {
+                for (int value : new int[] {0, 1, 9, 25, 31}) {
+                    int record = MoveJournal.encode(kind, cell, value, 31 - value);
+                    assertEquals(kind, MoveJournal.kind(record));
+                    assertEquals(cell, MoveJournal.cell(record));
+                    assertEquals(value, MoveJournal.oldValue(record));
+                    assertEquals(31 - value, MoveJournal.newValue(record));
+                }
+            }
+        }
+        assertNull(MoveJournal.kind(7 << 20));
+    }
+
+    @Test
+    void undoAndRedoStopAtTheEnds() {
+        Board board = PuzzleFormat.parse(PUZZLE);
+        MoveJournal journal = new MoveJournal(board);
+        assertFalse(journal.undo());
+        assertFalse(journal.redo());
+
+        board.set(0, 1, 2);
+        board.set(0, 2, 3);
+        assertFalse(journal.redo());
+
+        assertTrue(journal.undo());
+        assertEquals(0, board.get(0, 2));
+        assertTrue(journal.undo());
+        assertEquals(0, board.get(0, 1));
+        assertFalse(journal.undo());
+        assertFalse(journal.canUndo());
+        assertEquals(0, journal.getCursor());
+
+        assertTrue(journal.redo());
+        assertTrue(journal.redo());
+        assertFalse(journal.redo());
+        assertFalse(journal.canRedo());
+        assertEquals(2, board.get(0, 1));
+        assertEquals(3, board.get(0, 2));
+        assertEquals(2, journal.getCursor());
+    }
+
+    @Test
+    void newMoveDropsTheUndoneMoves() {
+        Board board = PuzzleFormat.parse(PUZZLE);
+        MoveJournal journal = new MoveJournal(board);
+        board.set(0, 1, 2);
+        board.set(0, 2, 3);
+        journal.undo();
+        board.set(1, 0, 3);
+
+        assertFalse(journal.canRedo());
+        assertEquals(2, journal.getMoves().length);
+        assertTrue(journal.undo());
+        assertEquals(0, board.get(1, 0));
+        assertEquals(2, board.get(0, 1));
+    }
+
+    @Test
+    void recordsKindOfEveryMove() {
+        Board board = PuzzleFormat.parse(PUZZLE);
+        MoveJournal journal = new MoveJournal(board);
+        List<MoveJournal.Kind> kinds = new ArrayList<>();
+        journal.setRecorder(record -> kinds.add(MoveJournal.kind(record)));
+
+        board.set(0, 1, 2);
+        journal.hint(() -> {
+            board.set(0, 2, 3);
+            return null;
+        });
+        board.clear(0, 1);
+        journal.undo();
+        journal.redo();
+
+        assertEquals(List.of(MoveJournal.Kind.PLACE, MoveJournal.Kind.HINT, MoveJournal.Kind.CLEAR,
+                MoveJournal.Kind.UNDO, MoveJournal.Kind.REDO), kinds);
+    }
+
+    @Test
+    void replayRebuildsBoardAndHistory() {
+        Board board = PuzzleFormat.parse(PUZZLE);
+        MoveJournal journal = new MoveJournal(board);
+        List<Integer> records = new ArrayList<>();
+        journal.setRecorder(records::add);
+        board.set(0, 1, 2);
+        board.set(0, 2, 3);
+        board.set(1, 0, 3);
+        journal.undo();
+        journal.undo();
+        journal.redo();
+        board.clear(0, 1);
+        journal.undo();
+
+        Board copy = PuzzleFormat.parse(PUZZLE);
+        MoveJournal replayed = new MoveJournal(copy);
+        for (int record : records) {
+            assertTrue(replayed.replay(record));
+        }
+        assertEquals(PuzzleFormat.format(board), PuzzleFormat.format(copy));
+        assertArrayEquals(journal.getMoves(), replayed.getMoves());
+        assertEquals(journal.getCursor(), replayed.getCursor());
+    }
+
+    @Test
+    void replayRejectsRecordsThatDoNotFit() {
+        MoveJournal journal = new MoveJournal(PuzzleFormat.parse(PUZZLE));
+        // A given cannot change
+        assertFalse(journal.replay(MoveJournal.encode(MoveJournal.Kind.PLACE, 0, 1, 2)));
+        // The cell does not hold the old number
+        assertFalse(journal.replay(MoveJournal.encode(MoveJournal.Kind.PLACE, 1, 3, 2)));
+        // Outside the board or above its numbers
+        assertFalse(journal.replay(MoveJournal.encode(MoveJournal.Kind.PLACE, 16, 0, 2)));
+        assertFalse(journal.replay(MoveJournal.encode(MoveJournal.Kind.PLACE, 1, 0, 5)));
+        // Nothing to undo or redo, unknown kind
+        assertFalse(journal.replay(MoveJournal.encode(MoveJournal.Kind.UNDO, 0, 0, 0)));
+        assertFalse(journal.replay(MoveJournal.encode(MoveJournal.Kind.REDO, 0, 0, 0)));
+        assertFalse(journal.replay(7 << 20));
+
+        assertTrue(journal.replay(MoveJournal.encode(MoveJournal.Kind.PLACE, 1, 0, 2)));
+        assertEquals(2, journal.getBoard().get(0, 1));
+        assertEquals(1, journal.getMoves().length);
+    }
+}
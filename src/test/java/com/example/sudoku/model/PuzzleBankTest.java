@@ -0,0 +1,114 @@
+package com.example.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleBankTest {
+    private static final int PER_LEVEL = 3;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsEverySizeAndDifficulty() throws IOException {
+        SplittableRandom random = new SplittableRandom(6);
+        for (BoardSize boardSize : BoardSize.values()) {
+            PuzzleBankWriter writer = new PuzzleBankWriter(boardSize);
+            List<List<String>> added = new ArrayList<>();
+            for (Difficulty difficulty : Difficulty.values()) {
+                List<String> lines = new ArrayList<>();
+                for (int i = 0; i < PER_LEVEL; i++) {
+                    Board board = new Board(boardSize, difficulty, random);
+                    writer.add(difficulty, board);
+                    lines.add(PuzzleFormat.format(board));
+                }
+                added.add(lines);
+            }
+            Path file = directory.resolve(boardSize.getSize() + ".bank");
+            writer.write(file);
+
+            PuzzleBank bank = PuzzleBank.open(file);
+            assertEquals(boardSize, bank.getBoardSize());
+            for (Difficulty difficulty : Difficulty.values()) {
+                List<String> lines = added.get(difficulty.ordinal());
+                assertEquals(PER_LEVEL, bank.count(difficulty));
+                for (int i = 0; i < PER_LEVEL; i++) {
+                    assertEquals(lines.get(i), PuzzleFormat.format(bank.load(difficulty, i)), boardSize + " " + difficulty);
+                }
+                for (int i = 0; i < 10; i++) {
+                    assertTrue(lines.contains(PuzzleFormat.format(bank.random(difficulty, random))), boardSize + " " + difficulty);
+                }
+                assertThrows(IndexOutOfBoundsException.class, () -> bank.load(difficulty, PER_LEVEL));
+            }
+        }
+    }
+
+    @Test
+    void decodesWhatEncodeWrote() {
+        SplittableRandom random = new SplittableRandom(8);
+        for (BoardSize boardSize : BoardSize.values()) {
+            Board board = new Board(boardSize, Difficulty.HARD, random);
+            // Starts past zero, the way records follow the header in a bank
+            ByteBuffer buffer = ByteBuffer.allocate(5 + PuzzleBank.recordSize(boardSize));
+            buffer.position(5);
+            PuzzleBank.encode(board, buffer);
+            assertEquals(buffer.capacity(), buffer.position(), boardSize.toString());
+            assertEquals(PuzzleFormat.format(board), PuzzleFormat.format(PuzzleBank.decode(buffer, 5, boardSize)));
+        }
+    }
+
+    @Test
+    void packsNumbersUpToSixteenInANibble() {
+        assertEquals(4, PuzzleBank.bitsPerCell(BoardSize.of(16)));
+        assertEquals(8, PuzzleBank.bitsPerCell(BoardSize.of(25)));
+        assertEquals(23, PuzzleBank.recordSize(BoardSize.of(6)));
+        assertEquals(52, PuzzleBank.recordSize(BoardSize.of(9)));
+        assertEquals(160, PuzzleBank.recordSize(BoardSize.of(16)));
+    }
+
+    @Test
+    void rejectsBoardsWithoutASolution() {
+        PuzzleBankWriter writer = new PuzzleBankWriter(BoardSize.of(4));
+        assertThrows(IllegalArgumentException.class, () -> writer.add(Difficulty.EASY, Board.empty(BoardSize.of(4))));
+        assertThrows(IllegalArgumentException.class, () -> writer.add(Difficulty.EASY, Board.empty(BoardSize.of(9))));
+        assertEquals(0, writer.count(Difficulty.EASY));
+    }
+
+    @Test
+    void levelWithoutPuzzlesHasNoRandomPuzzle() throws IOException {
+        PuzzleBankWriter writer = new PuzzleBankWriter(BoardSize.of(9));
+        writer.add(Difficulty.EASY, new Board(BoardSize.of(9), Difficulty.EASY, new SplittableRandom(1)));
+        Path file = directory.resolve("easy.bank");
+        writer.write(file);
+        PuzzleBank bank = PuzzleBank.open(file);
+        assertEquals(0, bank.count(Difficulty.EXPERT));
+        assertNull(bank.random(Difficulty.EXPERT, new SplittableRandom(1)));
+    }
+
+    @Test
+    void rejectsBanksOfTheFirstVersion() throws IOException {
+        PuzzleBankWriter writer = new PuzzleBankWriter(BoardSize.of(9));
+        writer.add(Difficulty.EASY, new Board(BoardSize.of(9), Difficulty.EASY, new SplittableRandom(1)));
+        Path file = directory.resolve("old.bank");
+        writer.write(file);
+        // Version 1 stored the numbers themselves in the nibbles, so its records would decode wrong
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(2).putShort(0, (short) 1), 4);
+        }
+        assertThrows(IOException.class, () -> PuzzleBank.open(file));
+    }
+}
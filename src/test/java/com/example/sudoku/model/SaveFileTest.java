@@ -0,0 +1,204 @@
+package com.example.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SaveFileTest {
+    // Givens at r0c0 and r0c3
+    private static final String PUZZLE = "4 1..4............ 1234341221434321";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void nothingToLoadInAnEmptyDirectory() throws IOException {
+        try (SaveFile saveFile = SaveFile.open(directory)) {
+            assertNull(saveFile.load());
+        }
+    }
+
+    @Test
+    void reloadsMovesFromTheJournal() throws IOException {
+        MoveJournal saved;
+        try (SaveFile saveFile = SaveFile.open(directory)) {
+            saved = new MoveJournal(PuzzleFormat.parse(PUZZLE));
+            saveFile.track(saved);
+            Board board = saved.getBoard();
+            board.set(0, 1, 2);
+            board.set(0, 2, 3);
+            saved.hint(() -> {
+                board.set(1, 0, 3);
+                return null;
+            });
+            saved.undo();
+        }
+
+        MoveJournal loaded = load();
+        assertSameGame(saved, loaded);
+        assertTrue(loaded.isGiven(0, 3));
+        assertFalse(loaded.isGiven(0, 1));
+        assertTrue(loaded.redo());
+        assertEquals(3, loaded.getBoard().get(1, 0));
+    }
+
+    @Test
+    void reloadsAfterCompaction() throws IOException {
+        MoveJournal saved;
+        try (SaveFile saveFile = SaveFile.open(directory)) {
+            saved = new MoveJournal(PuzzleFormat.parse(PUZZLE));
+            saveFile.track(saved);
+            Board board = saved.getBoard();
+            // Enough records for one compaction and a journal that is not empty afterwards
+            for (int i = 0; i < SaveFile.COMPACT_AFTER + 200; i++) {
+                board.set(1, 1, i % 2 == 0 ? 4 : 0);
+            }
+            board.set(0, 1, 2);
+            saved.undo();
+            saved.undo();
+            saved.redo();
+        }
+
+        // Generation 1 was written by track, the next one by the compaction
+        assertEquals(2, snapshotGeneration());
+        assertEquals(snapshotGeneration(), journalGeneration());
+        assertFalse(Files.exists(directory.resolve("game.snapshot.tmp")));
+        assertTrue(Files.size(directory.resolve("game.journal")) > SaveFile.JOURNAL_HEADER);
+        assertSameGame(saved, load());
+    }
+
+    @Test
+    void ignoresAJournalOfAnotherGeneration() throws IOException {
+        try (SaveFile saveFile = SaveFile.open(directory)) {
+            saveFile.track(new MoveJournal(PuzzleFormat.parse(PUZZLE)));
+        }
+        long generation = snapshotGeneration();
+        int record = MoveJournal.encode(MoveJournal.Kind.PLACE, 1, 0, 2);
+
+        writeJournal(generation - 1, record);
+        assertEquals(0, load().getBoard().get(0, 1));
+
+        writeJournal(generation, record);
+        assertEquals(2, load().getBoard().get(0, 1));
+    }
+
+    @Test
+    void dropsATruncatedLastRecord() throws IOException {
+        try (SaveFile saveFile = SaveFile.open(directory)) {
+            MoveJournal saved = new MoveJournal(PuzzleFormat.parse(PUZZLE));
+            saveFile.track(saved);
+            saved.getBoard().set(0, 1, 2);
+            saved.getBoard().set(0, 2, 3);
+            saved.getBoard().set(1, 0, 3);
+        }
+        Path journal = directory.resolve("game.journal");
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+
+        MoveJournal loaded = load();
+        assertEquals(2, loaded.getBoard().get(0, 1));
+        assertEquals(3, loaded.getBoard().get(0, 2));
+        assertEquals(0, loaded.getBoard().get(1, 0));
+        assertEquals(2, loaded.getCursor());
+        assertFalse(loaded.canRedo());
+    }
+
+    @Test
+    void stopsReplayingAtTheFirstRecordThatDoesNotFit() throws IOException {
+        try (SaveFile saveFile = SaveFile.open(directory)) {
+            saveFile.track(new MoveJournal(PuzzleFormat.parse(PUZZLE)));
+        }
+        writeJournal(snapshotGeneration(),
+                MoveJournal.encode(MoveJournal.Kind.PLACE, 1, 0, 2),
+                MoveJournal.encode(MoveJournal.Kind.PLACE, 0, 1, 3),
+                MoveJournal.encode(MoveJournal.Kind.PLACE, 2, 0, 3));
+
+        MoveJournal loaded = load();
+        assertEquals(2, loaded.getBoard().get(0, 1));
+        assertEquals(1, loaded.getBoard().get(0, 0));
+        assertEquals(0, loaded.getBoard().get(0, 2));
+    }
+
+    @Test
+    void ignoresACorruptedSnapshot() throws IOException {
+        try (SaveFile saveFile = SaveFile.open(directory)) {
+            saveFile.track(new MoveJournal(PuzzleFormat.parse(PUZZLE)));
+        }
+        Path snapshot = directory.resolve("game.snapshot");
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.WRITE)) {
+            channel.truncate(SaveFile.SNAPSHOT_HEADER + 5);
+        }
+        assertNull(load());
+    }
+
+    @Test
+    void ignoresASnapshotWithImpossibleMoveCounts() throws IOException {
+        // Offsets 16 and 20 hold the number of moves and the number of applied moves
+        int[][] headers = {
+                {Integer.MAX_VALUE, 0},
+                {-1, 0},
+                {3, 1},
+                {2, 3},
+                {2, -1},
+        };
+        for (int[] header : headers) {
+            try (SaveFile saveFile = SaveFile.open(directory)) {
+                MoveJournal saved = new MoveJournal(PuzzleFormat.parse(PUZZLE));
+                saveFile.track(saved);
+                saved.getBoard().set(0, 1, 2);
+                saved.getBoard().set(0, 2, 3);
+                // Compaction writes both moves into the snapshot
+                saveFile.track(saved);
+            }
+            try (FileChannel channel = FileChannel.open(directory.resolve("game.snapshot"), StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(8).putInt(header[0]).putInt(header[1]).flip(), 16);
+            }
+            assertNull(load(), header[0] + " moves, " + header[1] + " applied");
+        }
+    }
+
+    private MoveJournal load() throws IOException {
+        try (SaveFile saveFile = SaveFile.open(directory)) {
+            return saveFile.load();
+        }
+    }
+
+    private static void assertSameGame(MoveJournal expected, MoveJournal actual) {
+        assertNotNull(actual);
+        assertEquals(PuzzleFormat.format(expected.getBoard()), PuzzleFormat.format(actual.getBoard()));
+        assertArrayEquals(expected.getGivens(), actual.getGivens());
+        assertArrayEquals(expected.getMoves(), actual.getMoves());
+        assertEquals(expected.getCursor(), actual.getCursor());
+    }
+
+    private long snapshotGeneration() throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(directory.resolve("game.snapshot"))).getLong(8);
+    }
+
+    private long journalGeneration() throws IOException {
+        return ByteBuffer.wrap(Files.readAllBytes(directory.resolve("game.journal"))).getLong(4);
+    }
+
+    private void writeJournal(long generation, int... records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SaveFile.JOURNAL_HEADER + records.length * Integer.BYTES);
+        buffer.putInt(SaveFile.JOURNAL_MAGIC).putLong(generation);
+        for (int record : records) {
+            buffer.putInt(record);
+        }
+        Files.write(directory.resolve("game.journal"), buffer.array());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.sudoku.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotSetTest {
+
+    @Test
+    void behavesLikeAHashSet() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int size : new int[] {4, 9, 16}) {
+            BoardSize boardSize = BoardSize.of(size);
+            // No expected size, so the table grows many times on the way
+            SnapshotSet set = new SnapshotSet(boardSize, 0);
+            Set<BoardSnapshot> reference = new HashSet<>();
+            for (int i = 0; i < 20_000; i++) {
+                BoardSnapshot snapshot = randomSnapshot(boardSize, random);
+                assertEquals(reference.contains(snapshot), set.contains(snapshot));
+                assertEquals(reference.add(snapshot), set.add(snapshot));
+                assertEquals(reference.size(), set.size());
+            }
+            // Every snapshot added before the table grew is still found after it
+            for (BoardSnapshot snapshot : reference) {
+                assertTrue(set.contains(snapshot));
+                assertFalse(set.add(snapshot));
+            }
+            assertEquals(reference.size(), set.size());
+        }
+    }
+
+    @Test
+    void rejectsSnapshotsOfAnotherSize() {
+        SnapshotSet set = new SnapshotSet(BoardSize.of(4), 10);
+        BoardSnapshot snapshot = BoardSnapshot.of(BoardSize.of(9), new int[81]);
+        assertThrows(IllegalArgumentException.class, () -> set.add(snapshot));
+        assertThrows(IllegalArgumentException.class, () -> set.contains(snapshot));
+    }
+
+    /**
+     * A board with a few cells filled at random, so that many snapshots repeat on 4x4 boards.
+     */
+    private static BoardSnapshot randomSnapshot(BoardSize boardSize, SplittableRandom random) {
+        int[] cells = new int[boardSize.getCellCount()];
+        for (int i = 0; i < 3; i++) {
+            cells[random.nextInt(cells.length)] = 1 + random.nextInt(boardSize.getSize());
+        }
+        return BoardSnapshot.of(boardSize, cells);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSize;
+import com.example.sudoku.model.PuzzleFormat;
+import com.example.sudoku.model.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LogicSolverTest {
+    private static final int PUZZLES = 40;
+
+    @Test
+    void everyPlacementIsPartOfTheSolution() {
+        SplittableRandom random = new SplittableRandom(8);
+        for (int size : new int[] {4, 6, 9}) {
+            PuzzleGenerator generator = new PuzzleGenerator(BoardSize.of(size), Symmetry.NONE, 0);
+            for (int i = 0; i < PUZZLES; i++) {
+                Board board = generator.generate(random);
+                int[] solution = new SudokuSolver(board).solve();
+                LogicSolver solver = new LogicSolver(board);
+                for (Suggestion move = solver.next(); move != null; move = solver.next()) {
+                    assertEquals(solution[move.row() * size + move.col()], move.value(),
+                            size + "x" + size + " puzzle " + i + ", " + move);
+                    solver.place(move.row(), move.col(), move.value());
+                }
+            }
+        }
+    }
+
+    @Test
+    void placesANakedSingle() {
+        assertFirstMove(Technique.NAKED_SINGLE,
+                "9 9623415781542783693785964122361598474976821355814372967439256818157649236298137.4 "
+                        + "962341578154278369378596412236159847497682135581437296743925681815764923629813754");
+    }
+
+    @Test
+    void placesAHiddenSingle() {
+        assertFirstMove(Technique.HIDDEN_SINGLE,
+                "9 2.67859.3.83.692.77.9.32.86..7298631362541879891673524975326..8138954762624817395 "
+                        + "216785943483169257759432186547298631362541879891673524975326418138954762624817395");
+    }
+
+    @Test
+    void needsLockedCandidates() {
+        assertFirstMove(Technique.LOCKED_CANDIDATES,
+                "9 2843..5616132459875791864328259...463416.8.5996745.3.81.85..6747..8.4..545.7..893 "
+                        + "284397561613245987579186432825913746341678259967452318138529674796834125452761893");
+    }
+
+    @Test
+    void needsANakedPair() {
+        assertFirstMove(Technique.NAKED_PAIR,
+                "9 9.432758..73..54922584..73.426..1359395264817781953264....3.948.4....6.3.39.4.1.5 "
+                        + "964327581173685492258419736426871359395264817781953264617532948542198673839746125");
+    }
+
+    @Test
+    void needsAHiddenPair() {
+        assertFirstMove(Technique.HIDDEN_PAIR,
+                "9 3.....49....39......9.2.8131359..2..9281.6....7.235189..185392.25.419..8893762541 "
+                        + "312687495584391762769524813135948276928176354476235189641853927257419638893762541");
+    }
+
+    @Test
+    void findsNothingOnASolvedOrContradictoryBoard() {
+        Board solved = Board.solved(BoardSize.of(9), new SplittableRandom(1));
+        assertTrue(new LogicSolver(solved).isSolved());
+        assertNull(new LogicSolver(solved).next());
+
+        // The first cell has no candidate left: 1 and 2 are in its row, 3 and 4 in its column
+        Board stuck = PuzzleFormat.parse("4 .12.3...4.......");
+        assertNull(new LogicSolver(stuck).next());
+    }
+
+    /**
+     * Checks the technique reported for the first move of a position, and that the move agrees with the
+     * solution. The positions were found by stepping through generated puzzles; the easier techniques
+     * find no move in them.
+     */
+    private static void assertFirstMove(Technique technique, String line) {
+        Board board = PuzzleFormat.parse(line);
+        Suggestion move = new LogicSolver(board).next();
+        assertNotNull(move);
+        assertEquals(technique, move.technique());
+        assertEquals(board.getSolution(move.row(), move.col()), move.value());
+        assertEquals(0, board.get(move.row(), move.col()));
+        assertTrue(new SudokuSolver(board).isUnique());
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSize;
+import com.example.sudoku.model.PuzzleFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PuzzleGeneratorTest {
+    // Minimal puzzles take milliseconds up to 12x12 but can take seconds from 16x16 up
+    private static final int[] SIZES = {4, 6, 9, 12};
+    private static final int PUZZLES = 10;
+
+    @Test
+    void minimalPuzzlesAreUniqueSymmetricAndMinimal() {
+        SplittableRandom random = new SplittableRandom(16);
+        for (int size : SIZES) {
+            BoardSize boardSize = BoardSize.of(size);
+            for (Symmetry symmetry : Symmetry.values()) {
+                PuzzleGenerator generator = new PuzzleGenerator(boardSize, symmetry, 0);
+                for (int i = 0; i < PUZZLES; i++) {
+                    Board puzzle = generator.generate(random);
+                    String message = boardSize + " " + symmetry + " puzzle " + i;
+                    assertUniqueWithKnownSolution(puzzle, message);
+                    assertSymmetric(puzzle, symmetry, message);
+                    assertMinimal(puzzle, symmetry, message);
+                }
+            }
+        }
+    }
+
+    @Test
+    void stopsAtTheTargetClueCount() {
+        SplittableRandom random = new SplittableRandom(17);
+        for (int size : new int[] {9, 16}) {
+            BoardSize boardSize = BoardSize.of(size);
+            int target = boardSize.getCellCount() / 2;
+            for (Symmetry symmetry : Symmetry.values()) {
+                Board puzzle = new PuzzleGenerator(boardSize, symmetry, target).generate(random);
+                String message = boardSize + " " + symmetry;
+                assertUniqueWithKnownSolution(puzzle, message);
+                assertSymmetric(puzzle, symmetry, message);
+                // Half of the cells can always be emptied, so the generator stops within one orbit of the target
+                assertTrue(clues(puzzle) >= target && clues(puzzle) < target + 4, message + ": " + clues(puzzle) + " clues");
+            }
+        }
+    }
+
+    @Test
+    void rejectsATargetOutsideTheBoard() {
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleGenerator(BoardSize.of(9), Symmetry.NONE, -1));
+        assertThrows(IllegalArgumentException.class, () -> new PuzzleGenerator(BoardSize.of(9), Symmetry.NONE, 82));
+    }
+
+    private static void assertUniqueWithKnownSolution(Board puzzle, String message) {
+        int size = puzzle.getSize();
+        SudokuSolver solver = new SudokuSolver(puzzle);
+        assertTrue(solver.isUnique(), message);
+        int[] solution = new int[size * size];
+        for (int cell = 0; cell < solution.length; cell++) {
+            solution[cell] = puzzle.getSolution(cell / size, cell % size);
+        }
+        assertArrayEquals(solution, solver.solve(), message);
+    }
+
+    /**
+     * Checks that the cells of every orbit are either all clues or all empty.
+     */
+    private static void assertSymmetric(Board puzzle, Symmetry symmetry, String message) {
+        int size = puzzle.getSize();
+        int[] orbit = new int[4];
+        for (int cell = 0; cell < size * size; cell++) {
+            boolean clue = puzzle.get(cell / size, cell % size) != 0;
+            int count = symmetry.orbit(size, cell / size, cell % size, orbit);
+            for (int i = 0; i < count; i++) {
+                assertEquals(clue, puzzle.get(orbit[i] / size, orbit[i] % size) != 0, message + ", cell " + cell);
+            }
+        }
+    }
+
+    /**
+     * Checks that emptying any orbit of clues that is left gives the puzzle a second solution.
+     */
+    private static void assertMinimal(Board puzzle, Symmetry symmetry, String message) {
+        int size = puzzle.getSize();
+        int[] orbit = new int[4];
+        for (int cell = 0; cell < size * size; cell++) {
+            if (puzzle.get(cell / size, cell % size) == 0) {
+                continue;
+            }
+            Board removed = PuzzleFormat.parse(PuzzleFormat.format(puzzle));
+            int count = symmetry.orbit(size, cell / size, cell % size, orbit);
+            for (int i = 0; i < count; i++) {
+                removed.clear(orbit[i] / size, orbit[i] % size);
+            }
+            assertFalse(new SudokuSolver(removed).isUnique(), message + ", cell " + cell);
+        }
+    }
+
+    private static int clues(Board board) {
+        int size = board.getSize();
+        int clues = 0;
+        for (int cell = 0; cell < size * size; cell++) {
+            if (board.get(cell / size, cell % size) != 0) {
+                clues++;
+            }
+        }
+        return clues;
+    }
+}
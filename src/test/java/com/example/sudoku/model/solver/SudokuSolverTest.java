@@ -0,0 +1,95 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.Board;
+import com.example.sudoku.model.BoardSize;
+import com.example.sudoku.model.PuzzleFormat;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SudokuSolverTest {
+    private static final String PUZZLE =
+            "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+    private static final String SOLUTION =
+            "534678912672195348198342567859761423426853791713924856961537284287419635345286179";
+
+    @Test
+    void solvesAUniquePuzzle() {
+        SudokuSolver solver = new SudokuSolver(PuzzleFormat.parse("9 " + PUZZLE));
+        assertArrayEquals(PuzzleFormat.parseCells(SOLUTION, BoardSize.of(9)), solver.solve());
+        assertEquals(1, solver.countSolutions(2));
+        assertTrue(solver.isUnique());
+    }
+
+    @Test
+    void countsTwoSolutions() {
+        // Rows 4 and 5 hold 1 and 3 swapped in columns 6 and 9, so emptying those four cells leaves
+        // exactly two ways to fill them
+        char[] cells = SOLUTION.toCharArray();
+        for (int cell : new int[] {3 * 9 + 5, 3 * 9 + 8, 4 * 9 + 5, 4 * 9 + 8}) {
+            cells[cell] = '.';
+        }
+        SudokuSolver solver = new SudokuSolver(PuzzleFormat.parse("9 " + new String(cells)));
+        assertEquals(2, solver.countSolutions(2));
+        assertEquals(2, solver.countSolutions(10));
+        assertEquals(1, solver.countSolutions(1));
+        assertFalse(solver.isUnique());
+        assertNotNull(solver.solve());
+    }
+
+    @Test
+    void findsNoSolutionForAContradictoryBoard() {
+        // Two 5s in the first row
+        Board conflicting = Board.empty(BoardSize.of(9));
+        conflicting.set(0, 0, 5);
+        conflicting.set(0, 8, 5);
+        SudokuSolver solver = new SudokuSolver(conflicting);
+        assertNull(solver.solve());
+        assertEquals(0, solver.countSolutions(2));
+        assertFalse(solver.isUnique());
+
+        // No rule is broken yet, but the first row can only end with 4 then 3, and the last column
+        // already holds a 3
+        Board stuck = PuzzleFormat.parse("4 12....3....3....");
+        SudokuSolver stuckSolver = new SudokuSolver(stuck);
+        assertNull(stuckSolver.solve());
+        assertEquals(0, stuckSolver.countSolutions(2));
+    }
+
+    @Test
+    void rejectsALimitBelowOne() {
+        SudokuSolver solver = new SudokuSolver(Board.empty(BoardSize.of(4)));
+        assertThrows(IllegalArgumentException.class, () -> solver.countSolutions(0));
+    }
+
+    @Test
+    void solvesEverySize() {
+        SplittableRandom random = new SplittableRandom(2);
+        for (BoardSize boardSize : BoardSize.values()) {
+            int size = boardSize.getSize();
+            Board board = Board.solved(boardSize, random);
+            for (int cell = 0; cell < size * size; cell++) {
+                if (random.nextInt(3) == 0) {
+                    board.clear(cell / size, cell % size);
+                }
+            }
+            int[] solved = new SudokuSolver(board).solve();
+            assertNotNull(solved, boardSize.toString());
+            Board check = Board.empty(boardSize);
+            for (int cell = 0; cell < size * size; cell++) {
+                int clue = board.get(cell / size, cell % size);
+                assertTrue(clue == 0 || clue == solved[cell], boardSize + " cell " + cell);
+                assertTrue(check.isValid(cell / size, cell % size, solved[cell]).isValid(), boardSize + " cell " + cell);
+                check.set(cell / size, cell % size, solved[cell]);
+            }
+        }
+    }
+}
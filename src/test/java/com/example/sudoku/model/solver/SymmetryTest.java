@@ -0,0 +1,56 @@
+package com.example.sudoku.model.solver;
+
+import com.example.sudoku.model.BoardSize;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SymmetryTest {
+
+    @Test
+    void orbitsAreClosed() {
+        for (BoardSize boardSize : BoardSize.values()) {
+            int size = boardSize.getSize();
+            for (Symmetry symmetry : Symmetry.values()) {
+                int[] orbit = new int[4];
+                int[] image = new int[4];
+                for (int cell = 0; cell < size * size; cell++) {
+                    int count = symmetry.orbit(size, cell / size, cell % size, orbit);
+                    assertEquals(cell, orbit[0]);
+                    assertEquals(count, Arrays.stream(orbit, 0, count).distinct().count());
+                    int[] members = sorted(orbit, count);
+                    // Every member of an orbit has the same orbit
+                    for (int member : members) {
+                        int imageCount = symmetry.orbit(size, member / size, member % size, image);
+                        assertArrayEquals(members, sorted(image, imageCount), symmetry + " " + boardSize + " cell " + cell);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void orbitSizes() {
+        int[] orbit = new int[4];
+        // 9x9 has a centre cell and centre lines; 4x4 has neither
+        assertEquals(1, Symmetry.NONE.orbit(9, 2, 3, orbit));
+        assertEquals(2, Symmetry.ROTATIONAL.orbit(9, 2, 3, orbit));
+        assertEquals(1, Symmetry.ROTATIONAL.orbit(9, 4, 4, orbit));
+        assertEquals(2, Symmetry.MIRROR.orbit(9, 2, 3, orbit));
+        assertEquals(1, Symmetry.MIRROR.orbit(9, 2, 4, orbit));
+        assertEquals(4, Symmetry.FULL.orbit(9, 2, 3, orbit));
+        assertEquals(2, Symmetry.FULL.orbit(9, 4, 3, orbit));
+        assertEquals(1, Symmetry.FULL.orbit(9, 4, 4, orbit));
+        assertEquals(4, Symmetry.FULL.orbit(4, 1, 1, orbit));
+        assertArrayEquals(new int[] {5, 6, 9, 10}, sorted(orbit, 4));
+    }
+
+    private static int[] sorted(int[] cells, int count) {
+        int[] copy = Arrays.copyOf(cells, count);
+        Arrays.sort(copy);
+        return copy;
+    }
+}